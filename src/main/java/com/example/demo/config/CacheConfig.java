@@ -0,0 +1,30 @@
+package com.example.demo.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.demo.service.ReadCaches;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+@Configuration
+public class CacheConfig {
+
+    /**
+     * The stats cache holds results that are never evicted on writes, so it gets its own short TTL
+     * instead of {@code spring.cache.caffeine.spec}; a TTL of 0 stores nothing, i.e. no caching.
+     */
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> statsCache(
+            @Value("${app.stats.cache-ttl:30000}") long ttlMillis) {
+        return cacheManager -> cacheManager.registerCustomCache(ReadCaches.STATS, Caffeine.newBuilder()
+            .maximumSize(1000)
+            .expireAfterWrite(Duration.ofMillis(ttlMillis))
+            .recordStats()
+            .build());
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.config;
+
+import java.util.Map;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Car and owner ids come from pooled sequences: a sequence value {@code v} hands out the block
+ * {@code v - 49 .. v}. Rows inserted with explicit ids (seed data, imports, tables created before
+ * the sequences) can sit above that, and every insert would then collide. The sequences are moved
+ * past {@code max(id)} by {@code db/mariadb/003-id-sequences.sql}; this check only verifies that,
+ * before the application starts serving, and fails the startup when a sequence is behind or missing.
+ */
+@Component
+public class IdSequenceCheck implements InitializingBean {
+    // Must match allocationSize of the @SequenceGenerator on Car and Owner
+    static final int ALLOCATION_SIZE = 50;
+    private static final Map<String, String> SEQUENCES = Map.of("cars_seq", "cars", "owners_seq", "owners");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Dialect dialect;
+
+    public IdSequenceCheck(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        SEQUENCES.forEach(this::verify);
+    }
+
+    void verify(String sequence, String table) {
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from " + table, Long.class);
+        if (maxId == null) {
+            return;
+        }
+        // Consumes one block, which is only a gap in the ids
+        long next = jdbcTemplate.queryForObject(
+            dialect.getSequenceSupport().getSequenceNextValString(sequence), Long.class);
+        if (next - (ALLOCATION_SIZE - 1) <= maxId) {
+            throw new IllegalStateException("Sequence " + sequence + " is at " + next + " but " + table
+                + " holds id " + maxId + ": run db/mariadb/003-id-sequences.sql before starting");
+        }
+    }
+}
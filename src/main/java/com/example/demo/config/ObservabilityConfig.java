@@ -0,0 +1,29 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMessageConverterMethodProcessor;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import com.example.demo.observability.TimedReturnValueHandler;
+
+@Configuration
+public class ObservabilityConfig {
+
+    /**
+     * Reports response serialization time to the request profile by wrapping the return value
+     * handlers that write bodies through the message converters; the converters themselves stay
+     * Boot's, in Boot's order.
+     */
+    @Bean
+    public SmartInitializingSingleton timedResponseBodies(
+            @Qualifier("requestMappingHandlerAdapter") RequestMappingHandlerAdapter handlerAdapter) {
+        return () -> handlerAdapter.setReturnValueHandlers(handlerAdapter.getReturnValueHandlers().stream()
+            .map(handler -> handler instanceof AbstractMessageConverterMethodProcessor
+                ? new TimedReturnValueHandler(handler)
+                : handler)
+            .toList());
+    }
+}
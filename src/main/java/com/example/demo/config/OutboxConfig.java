@@ -0,0 +1,54 @@
+package com.example.demo.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestClient;
+
+import com.example.demo.service.outbox.FileOutboxSink;
+import com.example.demo.service.outbox.HttpOutboxSink;
+import com.example.demo.service.outbox.OutboxSink;
+import com.example.demo.service.outbox.QueueOutboxSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * The sink behind the change feed, selected with {@code app.outbox.sink}: {@code file} (default),
+ * {@code http} or {@code queue}. Nothing in the application reads the queue, so {@code queue} is only
+ * for deployments or tests that add an in-process consumer draining {@link QueueOutboxSink}; without
+ * one the queue fills up and every later batch fails and stays in the outbox.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "true")
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.outbox.sink", havingValue = "queue")
+    public QueueOutboxSink queueOutboxSink(@Value("${app.outbox.queue.capacity:10000}") int capacity,
+                                           MeterRegistry meterRegistry) {
+        QueueOutboxSink sink = new QueueOutboxSink(capacity);
+        Gauge.builder("outbox.queue.size", sink, QueueOutboxSink::size).register(meterRegistry);
+        return sink;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.outbox.sink", havingValue = "file", matchIfMissing = true)
+    public OutboxSink fileOutboxSink(@Value("${app.outbox.file.path:outbox.ndjson}") String path,
+                                     ObjectMapper objectMapper) {
+        return new FileOutboxSink(Path.of(path), objectMapper.writer());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.outbox.sink", havingValue = "http")
+    public OutboxSink httpOutboxSink(RestClient.Builder restClientBuilder,
+                                     @Value("${app.outbox.http.url}") String url,
+                                     @Value("${app.outbox.http.timeout:5000}") long timeoutMillis) {
+        return new HttpOutboxSink(restClientBuilder, url, Duration.ofMillis(timeoutMillis));
+    }
+}
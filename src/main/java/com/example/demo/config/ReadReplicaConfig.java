@@ -0,0 +1,84 @@
+package com.example.demo.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Opt-in read replicas: when {@code app.datasource.replicas.urls} is set, read-only transactions
+ * ({@code @Transactional(readOnly = true)} services and repository finders) run on the replicas
+ * and writes on {@code spring.datasource.url}. Replicas use the primary's credentials and driver.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnExpression("!'${app.datasource.replicas.urls:}'.isBlank()")
+public class ReadReplicaConfig {
+
+    /** The pool Boot would have created, still configured by {@code spring.datasource.hikari.*}. */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource, DataSourceProperties properties, MeterRegistry meterRegistry,
+            @Value("${app.datasource.replicas.urls}") String urls,
+            @Value("${app.datasource.replicas.pool-size:10}") int poolSize,
+            @Value("${app.datasource.replicas.connection-timeout:1000}") long connectionTimeoutMillis,
+            @Value("${app.datasource.replicas.eject-duration:30000}") long ejectMillis,
+            @Value("${app.datasource.replicas.read-your-writes-window:5000}") long readYourWritesMillis,
+            @Value("${spring.jpa.open-in-view:true}") boolean openInView) {
+        // An open session keeps its first connection for the whole request, whatever the transaction
+        if (openInView) {
+            throw new IllegalStateException("Read replica routing requires spring.jpa.open-in-view=false");
+        }
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : Arrays.stream(urls.split(",")).map(String::strip).filter(u -> !u.isEmpty()).toList()) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + (replicas.size() + 1));
+            config.setJdbcUrl(url);
+            config.setUsername(properties.determineUsername());
+            config.setPassword(properties.determinePassword());
+            config.setDriverClassName(properties.determineDriverClassName());
+            config.setMaximumPoolSize(poolSize);
+            config.setReadOnly(true);
+            // Fail fast so a dead replica is ejected quickly, and let the app start without it
+            config.setConnectionTimeout(connectionTimeoutMillis);
+            config.setInitializationFailTimeout(-1);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new HikariDataSource(config));
+        }
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicas,
+            Duration.ofMillis(ejectMillis), Duration.ofMillis(readYourWritesMillis));
+        Gauge.builder("datasource.replicas.healthy", routing, ReplicaRoutingDataSource::healthyReplicas)
+            .description("Read replicas currently in rotation")
+            .register(meterRegistry);
+        return routing;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.demo.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends connections for read-only transactions to the replicas, round-robin, and everything else
+ * to the primary. Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * so the connection is fetched once the transaction's read-only flag is known.
+ *
+ * <p>A replica that cannot connect is ejected for {@code ejectFor} and the next one is tried; one
+ * whose pool is only exhausted stays in rotation and the read moves on to the next replica. With
+ * none left the read goes to the primary. After a client (JWT subject, or IP when anonymous)
+ * commits a write, its reads stay on the primary for {@code readYourWritesWindow} so it never sees
+ * a replica that has not caught up with its own change.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long ejectForNanos;
+    private final Cache<String, Boolean> recentWriters;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration ejectFor,
+                                    Duration readYourWritesWindow) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.ejectForNanos = ejectFor.toNanos();
+        this.recentWriters = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(readYourWritesWindow)
+            .build();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            trackWrite();
+            return primary.getConnection();
+        }
+        String client = client();
+        if (client != null && recentWriters.getIfPresent(client) != null) {
+            return primary.getConnection();
+        }
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+            if (replica.ejected()) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLTransientConnectionException e) {
+                // Hikari attaches the last connect failure; without one the pool is merely busy
+                if (e.getCause() != null) {
+                    replica.eject(e);
+                }
+            } catch (SQLException e) {
+                replica.eject(e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    // Replica pools are built with the primary's credentials, so explicit ones go to the primary
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    /** Replicas currently in rotation. */
+    public long healthyReplicas() {
+        return replicas.stream().filter(replica -> !replica.ejected()).count();
+    }
+
+    // Opens the read-your-writes window once the write transaction has committed
+    private void trackWrite() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        String client = client();
+        if (client != null) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentWriters.put(client, Boolean.TRUE);
+                }
+            });
+        }
+    }
+
+    private static String client() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return authentication.getName();
+        }
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            return attributes.getRequest().getRemoteAddr();
+        }
+        return null;
+    }
+
+    private final class Replica {
+        private final DataSource dataSource;
+        private volatile long ejectedUntil;
+        private volatile boolean ejected;
+
+        Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        boolean ejected() {
+            return ejected && System.nanoTime() - ejectedUntil < 0;
+        }
+
+        void eject(SQLException cause) {
+            ejectedUntil = System.nanoTime() + ejectForNanos;
+            ejected = true;
+            log.warn("Replica {} ejected for {} ms: {}", dataSource, ejectForNanos / 1_000_000, cause.getMessage());
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.example.demo.config;
 import java.io.IOException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -19,9 +20,15 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 
 import com.example.demo.domain.User;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.security.BoundedPasswordEncoder;
+import com.example.demo.security.ConcurrencyLimitFilter;
 import com.example.demo.security.JwtAuthenticationFilter;
+import com.example.demo.security.RateLimitFilter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
@@ -29,6 +36,10 @@ import jakarta.servlet.http.HttpServletResponse;
 public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+    @Autowired
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -37,7 +48,9 @@ public class SecurityConfig {
             .cors(cors -> {})
             .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
-            .requestMatchers("/auth/login", "/auth/register").permitAll()
+            // the initial dispatch was already authorized; streamed bodies complete on an ASYNC dispatch
+            .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+            .requestMatchers("/auth/login", "/auth/register", "/auth/refresh").permitAll()
             .requestMatchers(
                 "/v3/api-docs/**",
                 "/swagger-ui.html",
@@ -48,10 +61,14 @@ public class SecurityConfig {
                 "/error"
             ).permitAll()
             .requestMatchers(org.springframework.http.HttpMethod.OPTIONS, "/**").permitAll()
+            .requestMatchers("/api/admin/**").hasRole("ADMIN")
             .anyRequest().authenticated()
             )
             .exceptionHandling(eh -> eh.authenticationEntryPoint(restAuthenticationEntryPoint()))
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            // shed load before any token parsing; rate limits need the authenticated user
+            .addFilterBefore(concurrencyLimitFilter, JwtAuthenticationFilter.class)
+            .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
         return http.build();
     }
 
@@ -70,9 +87,16 @@ public class SecurityConfig {
 
     // Custom UserDetailsService (UserDetailsDatabaseService) picked up via component scan
 
+    // BCrypt runs on its own bounded pool so login/register spikes cannot occupy every request thread
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.password-hashing.strength:10}") int strength,
+                                           @Value("${app.password-hashing.threads:0}") int threads,
+                                           @Value("${app.password-hashing.queue-capacity:100}") int queueCapacity,
+                                           @Value("${app.password-hashing.retry-after:1}") long retryAfterSeconds,
+                                           MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), poolSize, queueCapacity,
+            retryAfterSeconds, meterRegistry);
     }
 
     @Bean
@@ -0,0 +1,33 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Spring Boot silently keeps platform threads when {@code spring.threads.virtual.enabled} is set on
+ * a runtime older than Java 21; make that visible at startup instead.
+ */
+@Slf4j
+@Component
+public class VirtualThreadsCheck implements ApplicationRunner {
+    private final boolean requested;
+
+    public VirtualThreadsCheck(@Value("${spring.threads.virtual.enabled:false}") boolean requested) {
+        this.requested = requested;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int javaVersion = Runtime.version().feature();
+        if (requested && javaVersion < 21) {
+            log.warn("spring.threads.virtual.enabled=true needs Java 21+, running on Java {}: "
+                + "requests stay on the platform thread pool", javaVersion);
+        } else if (requested) {
+            log.info("Serving requests on virtual threads");
+        }
+    }
+}
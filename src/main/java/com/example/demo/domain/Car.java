@@ -1,27 +1,38 @@
 package com.example.demo.domain;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
-import lombok.AllArgsConstructor;
+import jakarta.persistence.Version;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
-@Table(name = "cars")
+// Backs /api/cars/search: brand, brand+model and brand+model+year filters use the composite index
+@Table(name = "cars", indexes = {
+    @Index(name = "ix_cars_brand_model_year", columnList = "brand, model, year"),
+    @Index(name = "ix_cars_year", columnList = "year"),
+    @Index(name = "ix_cars_owner_id", columnList = "owner_id")
+})
 public class Car {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts (ids are known before the INSERT)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cars_seq")
+    @SequenceGenerator(name = "cars_seq", sequenceName = "cars_seq", allocationSize = 50)
     @Column(name = "id")
     private Long carId;
 
@@ -29,8 +40,21 @@ public class Car {
     private String model;
     private int year;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id")
     @JsonBackReference
     private Owner owner;
+
+    // Optimistic lock, also the ETag validator of GET /api/cars/{id}
+    @Version
+    @ColumnDefault("0")
+    private long version;
+
+    public Car(Long carId, String brand, String model, int year, Owner owner) {
+        this.carId = carId;
+        this.brand = brand;
+        this.model = model;
+        this.year = year;
+        this.owner = owner;
+    }
 }
\ No newline at end of file
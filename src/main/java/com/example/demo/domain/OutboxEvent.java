@@ -0,0 +1,52 @@
+package com.example.demo.domain;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A committed change waiting to be published; the row is deleted once the sink has accepted it
+@Entity
+@Table(name = "outbox_events")
+@Data
+@NoArgsConstructor
+public class OutboxEvent {
+    @Id
+    // Sequence ids let the rows written by bulk imports go out as JDBC batches, and give the publish order
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "aggregate_type", nullable = false, length = 20)
+    private String aggregateType; // car | owner
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(name = "change_type", nullable = false, length = 10)
+    private String changeType; // CREATED | UPDATED | DELETED
+
+    @Lob
+    @Column(nullable = false)
+    private String payload; // JSON of the entity after the change, or before a delete
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public OutboxEvent(String aggregateType, Long aggregateId, String changeType, String payload,
+                       Instant createdAt) {
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.changeType = changeType;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.demo.domain;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Only the SHA-256 of the token is stored; the raw value is handed to the client once
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+    @Index(name = "ux_refresh_tokens_hash", columnList = "token_hash", unique = true),
+    @Index(name = "ix_refresh_tokens_username", columnList = "username"),
+    @Index(name = "ix_refresh_tokens_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_hash", nullable = false, length = 43)
+    private String tokenHash; // unpadded base64url SHA-256
+
+    @Column(nullable = false, length = 100)
+    private String username;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
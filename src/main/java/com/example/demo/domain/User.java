@@ -1,7 +1,12 @@
 package com.example.demo.domain;
 
+import org.hibernate.annotations.ColumnDefault;
+
+import com.example.demo.security.UserChangeListener;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -12,6 +17,7 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserChangeListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -28,4 +34,12 @@ public class User {
 
 	@Column(nullable = false, length = 200)
 	private String roles; // comma separated, e.g. "ROLE_USER,ROLE_ADMIN"
+
+	@Column(name = "token_version", nullable = false)
+	@ColumnDefault("0")
+	private int tokenVersion; // bumped to revoke every token issued before the change
+
+	public User(Long id, String username, String password, String roles) {
+		this(id, username, password, roles, 0);
+	}
 }
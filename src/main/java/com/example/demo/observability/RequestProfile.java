@@ -0,0 +1,84 @@
+package com.example.demo.observability;
+
+/**
+ * Time spent per phase while serving the current request, collected by the code running each
+ * phase on the request thread: JWT authentication, waiting for a pooled connection, executing
+ * SQL and writing the response body. Work on other threads (async dispatches, streaming
+ * exports) is not attributed.
+ */
+public final class RequestProfile {
+    private static final ThreadLocal<RequestProfile> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private long authNanos;
+    private long poolWaitNanos;
+    private long sqlNanos;
+    private int sqlStatements;
+    private long serializationNanos;
+
+    private RequestProfile() {}
+
+    static RequestProfile start() {
+        RequestProfile profile = new RequestProfile();
+        CURRENT.set(profile);
+        return profile;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    // Collectors call these with the elapsed time of their phase; no-ops outside a profiled request
+    public static void recordAuth(long nanos) {
+        RequestProfile profile = CURRENT.get();
+        if (profile != null) {
+            profile.authNanos += nanos;
+        }
+    }
+
+    static void recordPoolWait(long nanos) {
+        RequestProfile profile = CURRENT.get();
+        if (profile != null) {
+            profile.poolWaitNanos += nanos;
+        }
+    }
+
+    static void recordSql(long nanos, int statements) {
+        RequestProfile profile = CURRENT.get();
+        if (profile != null) {
+            profile.sqlNanos += nanos;
+            profile.sqlStatements += statements;
+        }
+    }
+
+    static void recordSerialization(long nanos) {
+        RequestProfile profile = CURRENT.get();
+        if (profile != null) {
+            profile.serializationNanos += nanos;
+        }
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    long authNanos() {
+        return authNanos;
+    }
+
+    long poolWaitNanos() {
+        return poolWaitNanos;
+    }
+
+    long sqlNanos() {
+        return sqlNanos;
+    }
+
+    int sqlStatements() {
+        return sqlStatements;
+    }
+
+    long serializationNanos() {
+        return serializationNanos;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.demo.observability;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Wraps every request, security included, in a {@link RequestProfile} and exports the breakdown
+ * per endpoint (tagged by method and URI template):
+ * <ul>
+ *   <li>{@code http.server.requests.phase{phase=auth|pool|sql|serialization|other}}: time per phase.
+ *   Phases can overlap: {@code auth} includes any SQL it runs, {@code other} is the remainder.</li>
+ *   <li>{@code http.server.requests.sql}: JDBC statements executed by the request.</li>
+ * </ul>
+ * Requests slower than {@code app.observability.slow-request-threshold} are logged with the same
+ * breakdown.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestProfilingFilter extends OncePerRequestFilter {
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdNanos;
+
+    public RequestProfilingFilter(MeterRegistry meterRegistry,
+                                  @Value("${app.observability.slow-request-threshold:1000}") long slowThresholdMillis) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        RequestProfile profile = RequestProfile.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestProfile.end();
+            // streamed bodies finish on another thread and are not attributed
+            if (!request.isAsyncStarted()) {
+                record(request, response, profile);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, RequestProfile profile) {
+        long total = profile.elapsedNanos();
+        String method = request.getMethod();
+        String uri = uriTemplate(request, response);
+        long other = Math.max(0, total - profile.authNanos() - profile.poolWaitNanos() - profile.sqlNanos()
+            - profile.serializationNanos());
+        phase(method, uri, "auth", profile.authNanos());
+        phase(method, uri, "pool", profile.poolWaitNanos());
+        phase(method, uri, "sql", profile.sqlNanos());
+        phase(method, uri, "serialization", profile.serializationNanos());
+        phase(method, uri, "other", other);
+        DistributionSummary.builder("http.server.requests.sql")
+            .description("JDBC statements executed per request")
+            .baseUnit("statements")
+            .tags("method", method, "uri", uri)
+            .register(meterRegistry)
+            .record(profile.sqlStatements());
+        if (total >= slowThresholdNanos) {
+            log.warn("Slow request {} {} ({}) -> {} in {} ms: auth={} ms, pool={} ms, sql={} ms in {} statements,"
+                    + " serialization={} ms, other={} ms",
+                method, request.getRequestURI(), uri, response.getStatus(), millis(total), millis(profile.authNanos()),
+                millis(profile.poolWaitNanos()), millis(profile.sqlNanos()), profile.sqlStatements(),
+                millis(profile.serializationNanos()), millis(other));
+        }
+    }
+
+    private void phase(String method, String uri, String phase, long nanos) {
+        Timer.builder("http.server.requests.phase")
+            .description("Time spent per phase of a request")
+            .tags("method", method, "uri", uri, "phase", phase)
+            .register(meterRegistry)
+            .record(Duration.ofNanos(nanos));
+    }
+
+    // Same idea as the uri tag of http.server.requests: the matched pattern keeps cardinality bounded
+    private static String uriTemplate(HttpServletRequest request, HttpServletResponse response) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null) {
+            return pattern.toString();
+        }
+        return switch (response.getStatus()) {
+            case 401, 403 -> "UNAUTHORIZED";
+            case 404 -> "NOT_FOUND";
+            default -> "UNKNOWN";
+        };
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
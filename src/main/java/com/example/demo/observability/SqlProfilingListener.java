@@ -0,0 +1,45 @@
+package com.example.demo.observability;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Hibernate creates one instance per session (see {@code hibernate.session.events.auto}) and
+ * reports JDBC work to it, which is added to the current {@link RequestProfile}: connection
+ * acquisition as pool wait, statement and batch execution as SQL time. Queries run through
+ * JdbcTemplate bypass Hibernate and are not counted.
+ */
+public class SqlProfilingListener implements SessionEventListener {
+    private long acquisitionStart;
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        acquisitionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        RequestProfile.recordPoolWait(System.nanoTime() - acquisitionStart);
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestProfile.recordSql(System.nanoTime() - statementStart, 1);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestProfile.recordSql(System.nanoTime() - batchStart, 1);
+    }
+}
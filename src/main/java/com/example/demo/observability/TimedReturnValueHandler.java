@@ -0,0 +1,35 @@
+package com.example.demo.observability;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Wraps the handler that writes {@code @ResponseBody} or {@code ResponseEntity} bodies through the
+ * message converters and reports the time as serialization, whichever converter and format (JSON,
+ * HAL, CBOR, Smile) the request negotiates.
+ */
+public class TimedReturnValueHandler implements HandlerMethodReturnValueHandler {
+    private final HandlerMethodReturnValueHandler delegate;
+
+    public TimedReturnValueHandler(HandlerMethodReturnValueHandler delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        return delegate.supportsReturnType(returnType);
+    }
+
+    @Override
+    public void handleReturnValue(Object returnValue, MethodParameter returnType, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest) throws Exception {
+        long start = System.nanoTime();
+        try {
+            delegate.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+        } finally {
+            RequestProfile.recordSerialization(System.nanoTime() - start);
+        }
+    }
+}
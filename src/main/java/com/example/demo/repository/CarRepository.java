@@ -1,8 +1,76 @@
 package com.example.demo.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
+import org.hibernate.jpa.HibernateHints;
 
 import com.example.demo.domain.Car;
+import com.example.demo.web.dto.BrandCount;
+import com.example.demo.web.dto.CarResponse;
+import com.example.demo.web.dto.YearCount;
+
+import jakarta.persistence.QueryHint;
+
+public interface CarRepository extends JpaRepository<Car, Long>, JpaSpecificationExecutor<Car>, CarSearchRepository {
+
+    String CAR_RESPONSE = "select new com.example.demo.web.dto.CarResponse("
+        + "c.carId, c.brand, c.model, c.year, c.owner.ownerId, c.version) from Car c";
+
+    @Query(value = CAR_RESPONSE, countQuery = "select count(c) from Car c")
+    Page<CarResponse> findAllResponses(Pageable pageable);
+
+    // Slice return type: Spring Data reads one extra row instead of running the count query
+    @Query(CAR_RESPONSE)
+    Slice<CarResponse> findResponseSlice(Pageable pageable);
+
+    @Query(CAR_RESPONSE + " where c.carId > :afterId order by c.carId")
+    List<CarResponse> findResponsesAfter(long afterId, Limit limit);
+
+    // Streams rows from an open cursor; the caller must consume it inside a transaction and close it
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(CAR_RESPONSE + " order by c.carId")
+    Stream<CarResponse> streamAllResponses();
+
+    @Query(CAR_RESPONSE + " where c.carId = :carId")
+    Optional<CarResponse> findResponseById(Long carId);
+
+    @Query(CAR_RESPONSE + " where c.owner.ownerId in :ownerIds order by c.carId")
+    List<CarResponse> findResponsesByOwnerIds(Collection<Long> ownerIds);
+
+    // Bulk delete in one statement; callers evict caches and publish events for the removed rows
+    @Modifying
+    @Query("delete from Car c where c.owner.ownerId in :ownerIds")
+    int deleteByOwnerIds(Collection<Long> ownerIds);
+
+    @Query("select c.version from Car c where c.carId = :carId")
+    Optional<Long> findVersionById(Long carId);
+
+    // Compare-and-set on the version: 0 when the car is gone or changed since expectedVersion.
+    // Clears the persistence context, whose copies of the car would now carry a stale version
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Car c set c.version = c.version + 1 where c.carId = :carId and c.version = :expectedVersion")
+    int incrementVersion(Long carId, long expectedVersion);
+
+    // Aggregates: grouped on the brand/year indexes, so only one row per group leaves the database
+    @Query("select new com.example.demo.web.dto.BrandCount(c.brand, count(c)) from Car c"
+        + " group by c.brand order by count(c) desc, c.brand")
+    List<BrandCount> countByBrand(Limit limit);
 
-public interface CarRepository extends JpaRepository<Car, Long> {
-}
\ No newline at end of file
+    @Query("select new com.example.demo.web.dto.YearCount(c.year, count(c)) from Car c"
+        + " group by c.year order by c.year")
+    List<YearCount> countByYear();
+}
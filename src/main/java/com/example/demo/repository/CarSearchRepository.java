@@ -0,0 +1,19 @@
+package com.example.demo.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.demo.domain.Car;
+import com.example.demo.web.dto.CarResponse;
+
+// Projections of the cars matching a Specification, which Spring Data cannot derive on its own
+public interface CarSearchRepository {
+
+    /**
+     * Keyset chunk of the cars matching {@code spec} with an id above {@code afterId}, in id order.
+     * Only the predicates of the Specification reach the SQL, so e.g. {@link CarSpecifications#search}
+     * filters use the same indexes as a search.
+     */
+    List<CarResponse> findResponsesMatchingAfter(Specification<Car> spec, long afterId, int limit);
+}
@@ -0,0 +1,34 @@
+package com.example.demo.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.demo.domain.Car;
+import com.example.demo.web.dto.CarResponse;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+class CarSearchRepositoryImpl implements CarSearchRepository {
+    private final EntityManager entityManager;
+
+    CarSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<CarResponse> findResponsesMatchingAfter(Specification<Car> spec, long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CarResponse> query = cb.createQuery(CarResponse.class);
+        Root<Car> car = query.from(Car.class);
+        Specification<Car> matching = spec.and((root, q, b) -> b.greaterThan(root.get("carId"), afterId));
+        query.select(cb.construct(CarResponse.class, car.get("carId"), car.get("brand"), car.get("model"),
+                car.get("year"), car.get("owner").get("ownerId"), car.get("version")))
+            .where(matching.toPredicate(car, query, cb))
+            .orderBy(cb.asc(car.get("carId")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.demo.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.demo.domain.Car;
+
+/**
+ * Filters for {@link CarRepository#findAll(Specification, org.springframework.data.domain.Pageable)}.
+ * Every predicate compares the plain column (no functions applied), so it can use the indexes
+ * declared on {@link Car}. A {@code null} argument means "no filter".
+ */
+public final class CarSpecifications {
+
+    private CarSpecifications() {}
+
+    public static Specification<Car> search(String brand, String model, Integer yearFrom, Integer yearTo,
+                                            Long ownerId) {
+        return Specification.allOf(
+            brand == null ? null : (root, query, cb) -> cb.equal(root.get("brand"), brand),
+            model == null ? null : (root, query, cb) -> cb.equal(root.get("model"), model),
+            yearFrom == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("year"), yearFrom),
+            yearTo == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("year"), yearTo),
+            ownerId == null ? null : (root, query, cb) -> cb.equal(root.get("owner").get("ownerId"), ownerId));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import com.example.demo.domain.OutboxEvent;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Oldest pending events, locked with {@code FOR UPDATE SKIP LOCKED} so that several instances
+     * publish disjoint batches instead of waiting for each other (MariaDB 10.6+; databases without
+     * SKIP LOCKED fall back to plain {@code FOR UPDATE}).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2")) // LockOptions.SKIP_LOCKED
+    @Query("select e from OutboxEvent e order by e.id")
+    List<OutboxEvent> lockOldest(Limit limit);
+
+    @Query("select min(e.createdAt) from OutboxEvent e")
+    Optional<Instant> findOldestCreatedAt();
+}
@@ -1,8 +1,72 @@
 package com.example.demo.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
+import org.hibernate.jpa.HibernateHints;
 
 import com.example.demo.domain.Owner;
+import com.example.demo.web.dto.OwnerResponse;
+import com.example.demo.web.dto.OwnershipCount;
+
+import jakarta.persistence.QueryHint;
 
 public interface OwnerRepository extends JpaRepository<Owner, Long> {
-}
\ No newline at end of file
+
+    String OWNER_RESPONSE = "select new com.example.demo.web.dto.OwnerResponse("
+        + "o.ownerId, o.firstName, o.lastName, o.version) from Owner o";
+
+    @Query(value = OWNER_RESPONSE, countQuery = "select count(o) from Owner o")
+    Page<OwnerResponse> findAllResponses(Pageable pageable);
+
+    @Query(OWNER_RESPONSE)
+    Slice<OwnerResponse> findResponseSlice(Pageable pageable);
+
+    @Query(OWNER_RESPONSE + " where o.ownerId > :afterId order by o.ownerId")
+    List<OwnerResponse> findResponsesAfter(long afterId, Limit limit);
+
+    @Query(OWNER_RESPONSE + " where o.ownerId = :ownerId")
+    Optional<OwnerResponse> findResponseById(Long ownerId);
+
+    // Streams rows from an open cursor; the caller must consume it inside a transaction and close it
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(OWNER_RESPONSE + " order by o.ownerId")
+    Stream<OwnerResponse> streamAllResponses();
+
+    @Query("select o.ownerId from Owner o where o.ownerId in :ownerIds")
+    Set<Long> findExistingIds(Collection<Long> ownerIds);
+
+    @Query("select o.version from Owner o where o.ownerId = :ownerId")
+    Optional<Long> findVersionById(Long ownerId);
+
+    // Compare-and-set on the version: 0 when the owner is gone or changed since expectedVersion.
+    // Both updates clear the persistence context, whose copies would now carry a stale version
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Owner o set o.version = o.version + 1 where o.ownerId = :ownerId and o.version = :expectedVersion")
+    int incrementVersion(Long ownerId, long expectedVersion);
+
+    // An owner's representation embeds its cars, so car writes move the owner's ETag on as well
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Owner o set o.version = o.version + 1 where o.ownerId in :ownerIds")
+    int incrementVersions(Collection<Long> ownerIds);
+
+    // Counts cars per owner in a derived table, then owners per car count
+    @Query("select new com.example.demo.web.dto.OwnershipCount(t.cars, count(*)) from ("
+        + "select count(c) as cars from Owner o left join o.cars c group by o.ownerId) t"
+        + " group by t.cars order by t.cars")
+    List<OwnershipCount> countByCarsOwned();
+}
@@ -2,15 +2,19 @@ package com.example.demo.security;
 
 import java.io.IOException;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.example.demo.observability.RequestProfile;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,38 +25,74 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final UserDetailsService userDetailsService;
     private final JwtTokenUtil jwtTokenUtil;
+    private final TokenAuthenticationCache tokenAuthenticationCache;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final boolean statelessEnabled;
 
-    public JwtAuthenticationFilter(UserDetailsService userDetailsService, JwtTokenUtil jwtTokenUtil) {
+    public JwtAuthenticationFilter(UserDetailsService userDetailsService, JwtTokenUtil jwtTokenUtil,
+                                   TokenAuthenticationCache tokenAuthenticationCache,
+                                   TokenRevocationRegistry tokenRevocationRegistry,
+                                   @Value("${jwt.stateless.enabled:false}") boolean statelessEnabled) {
         this.userDetailsService = userDetailsService;
         this.jwtTokenUtil = jwtTokenUtil;
+        this.tokenAuthenticationCache = tokenAuthenticationCache;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
+        this.statelessEnabled = statelessEnabled;
     }
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
             throws ServletException, IOException {
+        long start = System.nanoTime();
         final String authHeader = request.getHeader("Authorization");
-        String username = null;
         String token = null;
+        VerifiedToken verified = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             token = authHeader.substring(7);
+            UserDetails cached = tokenAuthenticationCache.get(token);
+            if (cached != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                authenticate(cached, request);
+                RequestProfile.recordAuth(System.nanoTime() - start);
+                filterChain.doFilter(request, response);
+                return;
+            }
             try {
-                username = jwtTokenUtil.extractUsername(token);
+                verified = jwtTokenUtil.verify(token);
             } catch (Exception e) {
                 // invalid token
             }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            if (jwtTokenUtil.isTokenValid(token, userDetails.getUsername())) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+        if (verified != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = resolveUser(verified);
+            if (userDetails != null) {
+                tokenAuthenticationCache.put(token, userDetails, verified.expiresAt().toEpochMilli());
+                authenticate(userDetails, request);
             }
         }
 
+        RequestProfile.recordAuth(System.nanoTime() - start);
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails resolveUser(VerifiedToken verified) {
+        if (!statelessEnabled || !verified.selfContained()) {
+            return userDetailsService.loadUserByUsername(verified.subject());
+        }
+        if (tokenRevocationRegistry.isRevoked(verified)) {
+            return null;
+        }
+        return User.withUsername(verified.subject())
+            .password("")
+            .authorities(verified.roles().toArray(String[]::new))
+            .build();
+    }
+
+    private void authenticate(UserDetails userDetails, HttpServletRequest request) {
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                userDetails, null, userDetails.getAuthorities());
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
 }
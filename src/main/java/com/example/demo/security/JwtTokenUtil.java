@@ -1,6 +1,7 @@
 package com.example.demo.security;
 
 import java.security.Key;
+import java.util.Collection;
 import java.util.Date;
 import java.util.function.Function;
 
@@ -8,6 +9,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -16,15 +19,15 @@ import io.jsonwebtoken.security.Keys;
 @Component
 public class JwtTokenUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final long expirationMillis;
 
-    @Value("${jwt.expiration:3600000}")
-    private long expirationMillis;
-
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public JwtTokenUtil(@Value("${jwt.secret}") String secret,
+                        @Value("${jwt.expiration:3600000}") long expirationMillis) {
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.expirationMillis = expirationMillis;
     }
 
     public String generateToken(String username) {
@@ -32,10 +35,35 @@ public class JwtTokenUtil {
             .setSubject(username)
             .setIssuedAt(new Date())
             .setExpiration(new Date(System.currentTimeMillis() + expirationMillis))
-            .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+            .signWith(signingKey, SignatureAlgorithm.HS256)
+            .compact();
+    }
+
+    /**
+     * Issues a self-contained token carrying the user's id, authorities and token version, so the
+     * authentication filter does not need to load the user.
+     */
+    public String generateToken(String username, long userId, Collection<String> roles, int tokenVersion) {
+        return Jwts.builder()
+            .setSubject(username)
+            .claim(VerifiedToken.USER_ID_CLAIM, userId)
+            .claim(VerifiedToken.ROLES_CLAIM, roles)
+            .claim(VerifiedToken.VERSION_CLAIM, tokenVersion)
+            .setIssuedAt(new Date())
+            .setExpiration(new Date(System.currentTimeMillis() + expirationMillis))
+            .signWith(signingKey, SignatureAlgorithm.HS256)
             .compact();
     }
 
+    /**
+     * Verifies signature and expiry with a single parse and returns the claims the filter needs.
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public VerifiedToken verify(String token) {
+        return VerifiedToken.from(extractAllClaims(token));
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -46,23 +74,14 @@ public class JwtTokenUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-            .setSigningKey(getSigningKey())
-            .build()
-            .parseClaimsJws(token)
-            .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public boolean isTokenValid(String token, String username) {
-        final String extracted = extractUsername(token);
-        return (extracted.equals(username) && !isTokenExpired(token));
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        try {
+            return verify(token).subject().equals(username);
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
     }
 }
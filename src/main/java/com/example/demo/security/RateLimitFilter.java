@@ -0,0 +1,89 @@
+package com.example.demo.security;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Per-client rate limits: {@code /auth/**} is limited per client IP (guards against password
+ * guessing), {@code /api/**} per authenticated user, or per IP for anonymous calls. Runs after
+ * {@link JwtAuthenticationFilter} so the user is known. Over-limit requests get 429 with
+ * {@code Retry-After}; every limited response carries {@code X-RateLimit-Limit/Remaining}.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final RateLimiter authLimiter;
+    private final RateLimiter apiLimiter;
+    private final ObjectMapper objectMapper;
+    private final Counter rejected;
+
+    public RateLimitFilter(@Value("${app.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${app.rate-limit.auth.permits-per-second:5}") double authPermitsPerSecond,
+                           @Value("${app.rate-limit.auth.burst:20}") int authBurst,
+                           @Value("${app.rate-limit.api.permits-per-second:50}") double apiPermitsPerSecond,
+                           @Value("${app.rate-limit.api.burst:200}") int apiBurst,
+                           @Value("${app.rate-limit.max-keys:100000}") int maxKeys,
+                           ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.authLimiter = new RateLimiter(authPermitsPerSecond, authBurst, maxKeys);
+        this.apiLimiter = new RateLimiter(apiPermitsPerSecond, apiBurst, maxKeys);
+        this.objectMapper = objectMapper;
+        this.rejected = Counter.builder("http.admission.rejected").tag("reason", "rate_limit")
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        RateLimiter limiter = path.startsWith("/auth/") ? authLimiter
+            : path.startsWith("/api/") ? apiLimiter : null;
+        if (!enabled || limiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        RateLimiter.Decision decision = limiter.tryAcquire(clientKey(request, limiter == apiLimiter));
+        response.setHeader("X-RateLimit-Limit", String.valueOf(decision.limit()));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(decision.remaining()));
+        if (decision.allowed()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        rejected.increment();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.retryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+            Map.of("error", "rate_limited", "message", "Too many requests, retry later"));
+    }
+
+    // Client IP is the connection's remote address; behind a proxy set server.forward-headers-strategy
+    private static String clientKey(HttpServletRequest request, boolean perUser) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (perUser && authentication != null && authentication.isAuthenticated()) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
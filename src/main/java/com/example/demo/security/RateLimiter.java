@@ -0,0 +1,77 @@
+package com.example.demo.security;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+/**
+ * Token bucket per key, implemented as GCRA: a bucket is just its theoretical arrival time in an
+ * {@link AtomicLong}, advanced with CAS, so there are no locks and no refill timers. A bucket left
+ * alone for the burst tolerance is full again and carries no information, so buckets expire after
+ * that much idle time. At most {@code maxKeys} are kept; beyond that Caffeine evicts the least
+ * useful ones in its amortized maintenance, so a flood of new keys costs O(1) per request.
+ */
+public class RateLimiter {
+    private final Cache<String, AtomicLong> buckets;
+    private final int burst;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+
+    public RateLimiter(double permitsPerSecond, int burst, int maxKeys) {
+        this(permitsPerSecond, burst, maxKeys, Ticker.systemTicker());
+    }
+
+    RateLimiter(double permitsPerSecond, int burst, int maxKeys, Ticker ticker) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("permitsPerSecond and burst must be positive");
+        }
+        this.burst = burst;
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.toleranceNanos = intervalNanos * burst;
+        this.buckets = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofNanos(toleranceNanos))
+            .maximumSize(maxKeys)
+            .ticker(ticker)
+            .build();
+    }
+
+    public Decision tryAcquire(String key) {
+        return tryAcquire(key, System.nanoTime());
+    }
+
+    Decision tryAcquire(String key, long now) {
+        AtomicLong arrival = buckets.get(key, k -> new AtomicLong(now));
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long debt = next - now;
+            if (debt > toleranceNanos) {
+                return new Decision(false, burst, 0, debt - toleranceNanos);
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return new Decision(true, burst, (int) ((toleranceNanos - debt) / intervalNanos), 0);
+            }
+        }
+    }
+
+    long size() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+
+    /**
+     * @param limit      bucket size, for the {@code X-RateLimit-Limit} header
+     * @param remaining  requests still allowed right now
+     * @param retryAfterNanos when rejected, how long until the next request would be allowed
+     */
+    public record Decision(boolean allowed, int limit, int remaining, long retryAfterNanos) {
+
+        public long retryAfterSeconds() {
+            return Math.max(1, (retryAfterNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+}
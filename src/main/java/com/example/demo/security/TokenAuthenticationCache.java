@@ -0,0 +1,89 @@
+package com.example.demo.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded cache of already verified bearer tokens. Entries are keyed by the SHA-256 of the
+ * token (raw tokens are never retained) and expire at the token's {@code exp} claim or after
+ * {@code jwt.cache.max-ttl}, whichever comes first.
+ */
+@Component
+public class TokenAuthenticationCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long maxTtlMillis;
+
+    public TokenAuthenticationCache(@Value("${jwt.cache.max-size:10000}") int maxSize,
+                                    @Value("${jwt.cache.max-ttl:300000}") long maxTtlMillis) {
+        this.maxSize = maxSize;
+        this.maxTtlMillis = maxTtlMillis;
+    }
+
+    public UserDetails get(String token) {
+        String key = hash(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.userDetails();
+    }
+
+    public void put(String token, UserDetails userDetails, long tokenExpiresAt) {
+        if (maxSize <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long expiresAt = Math.min(tokenExpiresAt, now + maxTtlMillis);
+        if (expiresAt <= now) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evictExpired(now);
+            if (entries.size() >= maxSize) {
+                return;
+            }
+        }
+        entries.put(hash(token), new Entry(userDetails, expiresAt));
+    }
+
+    public void invalidateUser(String username) {
+        entries.values().removeIf(e -> e.userDetails().getUsername().equals(username));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evictExpired(long now) {
+        entries.values().removeIf(e -> e.expiresAt() <= now);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Entry(UserDetails userDetails, long expiresAt) {}
+}
@@ -0,0 +1,53 @@
+package com.example.demo.security;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+/**
+ * Decides whether a self-contained token is still accepted without loading the user on every
+ * request. The id and {@code token_version} of each user are read from the database and kept for
+ * {@code jwt.stateless.recheck-interval}, so revocations made on another instance or before a
+ * restart apply within that interval. A token is rejected when its user no longer exists, when it
+ * was issued to an earlier user of the same name (different id) or when its version is older.
+ * Changes committed on this instance are applied at once by {@link UserChangeListener}.
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    private final LoadingCache<String, Optional<TokenOwner>> owners;
+
+    // The repository is looked up lazily: this bean is needed by the User entity listener
+    public TokenRevocationRegistry(ObjectProvider<UserRepository> userRepository,
+                                   @Value("${jwt.stateless.recheck-interval:30000}") long recheckIntervalMillis,
+                                   @Value("${jwt.cache.max-size:10000}") int maxSize) {
+        this.owners = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(recheckIntervalMillis))
+            .maximumSize(maxSize)
+            .build(username -> userRepository.getObject().findByUsername(username)
+                .map(user -> new TokenOwner(user.getId(), user.getTokenVersion())));
+    }
+
+    public void userSaved(String username, long id, int tokenVersion) {
+        owners.put(username, Optional.of(new TokenOwner(id, tokenVersion)));
+    }
+
+    public void userRemoved(String username) {
+        owners.put(username, Optional.empty());
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        return owners.get(token.subject())
+            .map(owner -> !owner.id().equals(token.userId()) || token.version() < owner.tokenVersion())
+            .orElse(true);
+    }
+
+    private record TokenOwner(Long id, int tokenVersion) {}
+}
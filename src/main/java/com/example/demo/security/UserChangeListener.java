@@ -0,0 +1,63 @@
+package com.example.demo.security;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.demo.domain.User;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Drops cached authentications and revokes stale self-contained tokens when a user's roles,
+ * password or account are changed or removed. Inside a transaction this happens after commit, so
+ * a rolled-back change revokes nothing.
+ */
+@Component
+public class UserChangeListener {
+
+    private final TokenAuthenticationCache tokenAuthenticationCache;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+
+    public UserChangeListener(TokenAuthenticationCache tokenAuthenticationCache,
+                              TokenRevocationRegistry tokenRevocationRegistry) {
+        this.tokenAuthenticationCache = tokenAuthenticationCache;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onUserSaved(User user) {
+        String username = user.getUsername();
+        long id = user.getId();
+        int tokenVersion = user.getTokenVersion();
+        afterCommit(() -> {
+            tokenRevocationRegistry.userSaved(username, id, tokenVersion);
+            tokenAuthenticationCache.invalidateUser(username);
+        });
+    }
+
+    @PostRemove
+    public void onUserRemoved(User user) {
+        String username = user.getUsername();
+        afterCommit(() -> {
+            tokenRevocationRegistry.userRemoved(username);
+            tokenAuthenticationCache.invalidateUser(username);
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.demo.security;
+
+import java.time.Instant;
+import java.util.List;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Claims of a token whose signature and expiry have already been checked. {@code userId} and
+ * {@code version} are only present on self-contained tokens, which also carry the user's
+ * {@code roles}.
+ */
+public record VerifiedToken(String subject, Long userId, List<String> roles, Integer version, Instant expiresAt) {
+
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLES_CLAIM = "roles";
+    static final String VERSION_CLAIM = "ver";
+
+    static VerifiedToken from(Claims claims) {
+        List<?> rawRoles = claims.get(ROLES_CLAIM, List.class);
+        List<String> roles = rawRoles == null ? List.of() : rawRoles.stream().map(String::valueOf).toList();
+        Long userId = claims.get(USER_ID_CLAIM, Long.class);
+        Integer version = claims.get(VERSION_CLAIM, Integer.class);
+        return new VerifiedToken(claims.getSubject(), userId, roles, version, claims.getExpiration().toInstant());
+    }
+
+    public boolean selfContained() {
+        return version != null;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.demo.service;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.repository.CarRepository;
+import com.example.demo.repository.OwnerRepository;
+
+/**
+ * Row counts for the cars and owners tables, refreshed in the background so list endpoints
+ * can report an approximate total without a {@code count(*)} per request.
+ */
+@Component
+public class ApproximateRowCounts {
+    private final CarRepository carRepository;
+    private final OwnerRepository ownerRepository;
+
+    private volatile Long cars;
+    private volatile Long owners;
+
+    public ApproximateRowCounts(CarRepository carRepository, OwnerRepository ownerRepository) {
+        this.carRepository = carRepository;
+        this.ownerRepository = ownerRepository;
+    }
+
+    public long cars() {
+        Long count = cars;
+        if (count == null) {
+            count = carRepository.count();
+            cars = count;
+        }
+        return count;
+    }
+
+    public long owners() {
+        Long count = owners;
+        if (count == null) {
+            count = ownerRepository.count();
+            owners = count;
+        }
+        return count;
+    }
+
+    /**
+     * Turns a slice into a page whose total is {@code estimate}, raised to what the slice itself
+     * proves exists: a stale, low estimate must not end paging while the slice still has a next page.
+     */
+    static <T> Page<T> page(Slice<T> slice, long estimate) {
+        long seen = slice.getPageable().getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+        return new PageImpl<>(slice.getContent(), slice.getPageable(), Math.max(estimate, seen));
+    }
+
+    @Scheduled(fixedDelayString = "${app.row-counts.refresh-interval:60000}",
+               initialDelayString = "${app.row-counts.refresh-interval:60000}")
+    public void refresh() {
+        cars = carRepository.count();
+        owners = ownerRepository.count();
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.web.dto.BatchResult;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Inserts any number of items in chunks of {@code app.batch.chunk-size}. Every chunk is persisted
+ * in its own transaction so Hibernate sends it as JDBC batches, then detached so memory stays flat
+ * however long the input is. Items that fail validation or mapping are reported by position and
+ * skipped; the rest are still inserted.
+ */
+@Component
+public class BatchInserter {
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final int chunkSize;
+
+    public BatchInserter(PlatformTransactionManager transactionManager, EntityManager entityManager,
+                         Validator validator, @Value("${app.batch.chunk-size:500}") int chunkSize) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @param chunkMapper given the valid requests of a chunk (e.g. to look up referenced rows with one
+     *                    query), returns the request-to-entity mapping; it rejects an item by throwing
+     *                    {@link IllegalArgumentException}
+     * @param idOf        reads the generated id of a persisted entity
+     * @param onPersisted called for every flushed entity inside the chunk's transaction, e.g. to
+     *                    publish change events that are delivered once the chunk commits
+     */
+    public <R, E> BatchResult insert(Iterator<R> items, Function<List<R>, Function<R, E>> chunkMapper,
+                                     Function<E, Long> idOf, Consumer<E> onPersisted) {
+        List<Long> createdIds = new ArrayList<>();
+        List<BatchResult.ItemError> errors = new ArrayList<>();
+        List<R> chunk = new ArrayList<>(chunkSize);
+        List<Integer> positions = new ArrayList<>(chunkSize);
+        int received = 0;
+        while (items.hasNext()) {
+            R item = items.next();
+            int position = received++;
+            String error = validate(item);
+            if (error != null) {
+                errors.add(new BatchResult.ItemError(position, error));
+                continue;
+            }
+            chunk.add(item);
+            positions.add(position);
+            if (chunk.size() == chunkSize) {
+                persistChunk(chunk, positions, chunkMapper, idOf, onPersisted, createdIds, errors);
+                chunk.clear();
+                positions.clear();
+            }
+        }
+        persistChunk(chunk, positions, chunkMapper, idOf, onPersisted, createdIds, errors);
+        errors.sort(Comparator.comparingInt(BatchResult.ItemError::index));
+        return new BatchResult(received, createdIds, errors);
+    }
+
+    private <R, E> void persistChunk(List<R> chunk, List<Integer> positions,
+                                     Function<List<R>, Function<R, E>> chunkMapper, Function<E, Long> idOf,
+                                     Consumer<E> onPersisted, List<Long> createdIds,
+                                     List<BatchResult.ItemError> errors) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Function<R, E> toEntity = chunkMapper.apply(chunk);
+            List<E> persisted = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                try {
+                    E entity = toEntity.apply(chunk.get(i));
+                    entityManager.persist(entity);
+                    persisted.add(entity);
+                } catch (IllegalArgumentException e) {
+                    errors.add(new BatchResult.ItemError(positions.get(i), e.getMessage()));
+                }
+            }
+            entityManager.flush();
+            persisted.forEach(entity -> {
+                createdIds.add(idOf.apply(entity));
+                onPersisted.accept(entity);
+            });
+            // listeners may have persisted more, e.g. outbox rows
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private String validate(Object item) {
+        if (item == null) {
+            return "Item is empty or not valid JSON";
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+            .map(v -> v.getPropertyPath() + " " + v.getMessage())
+            .sorted()
+            .reduce((a, b) -> a + "; " + b)
+            .orElseThrow();
+    }
+}
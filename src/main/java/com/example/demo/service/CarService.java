@@ -1,40 +1,288 @@
 package com.example.demo.service;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.example.demo.domain.Car;
+import com.example.demo.domain.Owner;
 import com.example.demo.repository.CarRepository;
+import com.example.demo.repository.CarSpecifications;
+import com.example.demo.repository.OwnerRepository;
+import com.example.demo.service.event.CarChangedEvent;
+import com.example.demo.web.dto.BatchResult;
+import com.example.demo.web.dto.CarRequest;
+import com.example.demo.web.dto.CarResponse;
+import com.example.demo.web.error.NotFoundException;
+import com.example.demo.web.error.PreconditionFailedException;
 
 @Service
 public class CarService {
+    private static final Set<String> SEARCH_SORT_PROPERTIES = Set.of("carId", "brand", "model", "year");
+    // Ids per bulk DELETE, keeping the IN list well below driver and server parameter limits
+    private static final int DELETE_CHUNK = 1000;
+
     private final CarRepository carRepository;
+    private final OwnerRepository ownerRepository;
+    private final ApproximateRowCounts rowCounts;
+    private final BatchInserter batchInserter;
+    private final ReadCaches caches;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate transactionTemplate;
 
-    public CarService(CarRepository carRepository) {
+    public CarService(CarRepository carRepository, OwnerRepository ownerRepository,
+                      ApproximateRowCounts rowCounts, BatchInserter batchInserter, ReadCaches caches,
+                      ApplicationEventPublisher events, PlatformTransactionManager transactionManager) {
         this.carRepository = carRepository;
+        this.ownerRepository = ownerRepository;
+        this.rowCounts = rowCounts;
+        this.batchInserter = batchInserter;
+        this.caches = caches;
+        this.events = events;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     public List<Car> getCars() {
         return carRepository.findAll();
     }
 
-    public Page<Car> getCars(Pageable pageable) {
-        return carRepository.findAll(pageable);
+    @Transactional(readOnly = true)
+    public Page<CarResponse> getCars(Pageable pageable) {
+        return carRepository.findAllResponses(pageable);
+    }
+
+    /**
+     * Page of cars whose total is counted exactly, estimated from {@link ApproximateRowCounts},
+     * or skipped entirely (a {@link Slice} that only knows whether a next page exists).
+     */
+    @Transactional(readOnly = true)
+    public Slice<CarResponse> getCars(Pageable pageable, TotalCount total) {
+        return switch (total) {
+            case EXACT -> carRepository.findAllResponses(pageable);
+            case NONE -> carRepository.findResponseSlice(pageable);
+            case ESTIMATE -> ApproximateRowCounts.page(carRepository.findResponseSlice(pageable), rowCounts.cars());
+        };
+    }
+
+    /**
+     * Keyset read: cars with an id greater than {@code afterId}, in id order, without a count query.
+     */
+    @Transactional(readOnly = true)
+    public List<CarResponse> getCarsAfter(long afterId, int limit) {
+        return carRepository.findResponsesAfter(afterId, Limit.of(limit));
+    }
+
+    /**
+     * Cars matching all given filters ({@code null} = any), sorted by an indexed column.
+     */
+    @Transactional(readOnly = true)
+    public Page<CarResponse> searchCars(String brand, String model, Integer yearFrom, Integer yearTo,
+                                        Long ownerId, Pageable pageable) {
+        pageable.getSort().forEach(order -> {
+            if (!SEARCH_SORT_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort by " + order.getProperty()
+                    + ", use one of " + SEARCH_SORT_PROPERTIES);
+            }
+        });
+        return carRepository.findAll(CarSpecifications.search(brand, model, yearFrom, yearTo, ownerId), pageable)
+            .map(CarResponse::from);
+    }
+
+    /**
+     * Hands every car to {@code sink} in id order while a database cursor is open, so the whole
+     * table is never held in memory.
+     */
+    @Transactional(readOnly = true)
+    public void exportCars(Consumer<CarResponse> sink) {
+        try (Stream<CarResponse> cars = carRepository.streamAllResponses()) {
+            cars.forEach(sink);
+        }
+    }
+
+    @Transactional
+    public CarResponse saveCar(Car car) {
+        CarResponse before = car.getCarId() == null ? null
+            : carRepository.findResponseById(car.getCarId()).orElse(null);
+        return save(car, before, null);
+    }
+
+    /**
+     * Replaces an existing car. With {@code expectedVersion} (from If-Match) the update only
+     * succeeds if nobody changed the car since that version.
+     */
+    @Transactional
+    public CarResponse updateCar(Long id, Car car, Long expectedVersion) {
+        CarResponse before = carRepository.findResponseById(id)
+            .orElseThrow(() -> new NotFoundException("Car not found"));
+        car.setCarId(id);
+        return save(car, before, expectedVersion);
     }
 
-    public Car saveCar(Car car) {
-        return carRepository.save(car);
+    // The version is taken from the database (or If-Match), never from the request body
+    private CarResponse save(Car car, CarResponse before, Long expectedVersion) {
+        if (before != null) {
+            if (expectedVersion != null && before.version() != expectedVersion) {
+                throw new PreconditionFailedException("Version is " + before.version() + ", not " + expectedVersion);
+            }
+            car.setVersion(expectedVersion == null ? before.version() : expectedVersion);
+        }
+        CarResponse saved;
+        try {
+            saved = CarResponse.from(carRepository.saveAndFlush(car));
+        } catch (OptimisticLockingFailureException e) {
+            if (expectedVersion == null) {
+                throw e;
+            }
+            throw new PreconditionFailedException("Car was modified since version " + expectedVersion);
+        }
+        caches.evictCar(saved.carId());
+        touchOwners(saved.ownerId(), before == null ? null : before.ownerId());
+        events.publishEvent(new CarChangedEvent(before, saved));
+        return saved;
     }
 
+    /**
+     * Inserts cars with batched statements, reporting invalid items and unknown owners by position.
+     */
+    public BatchResult importCars(Iterator<CarRequest> cars) {
+        BatchResult result = batchInserter.insert(cars, this::toCars, Car::getCarId,
+            car -> events.publishEvent(new CarChangedEvent(null, CarResponse.from(car))));
+        if (!result.createdIds().isEmpty()) {
+            caches.clearOwners();
+        }
+        return result;
+    }
+
+    // Checks the owners referenced by a chunk with one query
+    private Function<CarRequest, Car> toCars(List<CarRequest> requests) {
+        Set<Long> referenced = requests.stream().map(CarRequest::ownerId).filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        Set<Long> existing = referenced.isEmpty() ? Set.of() : ownerRepository.findExistingIds(referenced);
+        if (!existing.isEmpty()) {
+            ownerRepository.incrementVersions(existing);
+        }
+        return request -> {
+            Owner owner = null;
+            if (request.ownerId() != null) {
+                if (!existing.contains(request.ownerId())) {
+                    throw new IllegalArgumentException("Owner " + request.ownerId() + " not found");
+                }
+                owner = ownerRepository.getReferenceById(request.ownerId());
+            }
+            return new Car(null, request.brand(), request.model(), request.year(), owner);
+        };
+    }
+
+    @Transactional
     public void deleteCar(Long id) {
+        deleteCar(id, null);
+    }
+
+    /**
+     * Deletes a car; with {@code expectedVersion} (from If-Match) only if it is still at that version.
+     */
+    @Transactional
+    public void deleteCar(Long id, Long expectedVersion) {
+        CarResponse before = carRepository.findResponseById(id).orElse(null);
+        if (expectedVersion != null && (before == null || carRepository.incrementVersion(id, expectedVersion) == 0)) {
+            throw new PreconditionFailedException("Car was modified or deleted since version " + expectedVersion);
+        }
         carRepository.deleteById(id);
+        caches.evictCar(id);
+        if (before != null) {
+            touchOwners(before.ownerId(), null);
+            events.publishEvent(new CarChangedEvent(before, null));
+        }
     }
 
-    public Car getCar(Long id) {
-        return carRepository.findById(id)
+    /**
+     * Deletes every car matching the filters (at least one is required) in id order, {@value #DELETE_CHUNK}
+     * cars at a time: each chunk reads the matching rows as projections, then removes them with one
+     * bulk DELETE, in its own transaction. Memory, locks and statement size stay bounded however many
+     * cars match. The delete is not atomic: a failure leaves the chunks already committed deleted.
+     *
+     * @return the number of deleted cars
+     */
+    public int deleteCars(String brand, String model, Integer yearFrom, Integer yearTo, Long ownerId) {
+        if (Stream.of(brand, model, yearFrom, yearTo, ownerId).allMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("At least one filter is required");
+        }
+        Specification<Car> matching = CarSpecifications.search(brand, model, yearFrom, yearTo, ownerId);
+        int deleted = 0;
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            List<CarResponse> chunk = transactionTemplate.execute(status -> {
+                List<CarResponse> cars = carRepository.findResponsesMatchingAfter(matching, from, DELETE_CHUNK);
+                if (cars.isEmpty()) {
+                    return cars;
+                }
+                Set<Long> ownerIds = cars.stream().map(CarResponse::ownerId).filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+                if (!ownerIds.isEmpty()) {
+                    ownerRepository.incrementVersions(ownerIds);
+                }
+                carRepository.deleteAllByIdInBatch(cars.stream().map(CarResponse::carId).toList());
+                cars.forEach(car -> events.publishEvent(new CarChangedEvent(car, null)));
+                return cars;
+            });
+            chunk.forEach(car -> {
+                caches.evictCar(car.carId());
+                caches.evictOwner(car.ownerId());
+            });
+            deleted += chunk.size();
+            if (chunk.size() < DELETE_CHUNK) {
+                return deleted;
+            }
+            afterId = chunk.get(chunk.size() - 1).carId();
+        }
+    }
+
+    @Cacheable(ReadCaches.CARS)
+    @Transactional(readOnly = true)
+    public CarResponse getCar(Long id) {
+        return carRepository.findResponseById(id)
             .orElseThrow(() -> new com.example.demo.web.error.NotFoundException("Car not found"));
     }
-}
\ No newline at end of file
+
+    /**
+     * Current version of a car, from the read cache when present, otherwise from a single-column
+     * lookup; lets conditional GETs answer 304 without loading the car.
+     */
+    @Transactional(readOnly = true)
+    public long getCarVersion(Long id) {
+        CarResponse cached = caches.cachedCar(id);
+        if (cached != null) {
+            return cached.version();
+        }
+        return carRepository.findVersionById(id).orElseThrow(() -> new NotFoundException("Car not found"));
+    }
+
+    // Owner entries embed their cars: evict them and move their ETag on
+    private void touchOwners(Long ownerId, Long previousOwnerId) {
+        Set<Long> ownerIds = Stream.of(ownerId, previousOwnerId).filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        if (!ownerIds.isEmpty()) {
+            ownerRepository.incrementVersions(ownerIds);
+            ownerIds.forEach(caches::evictOwner);
+        }
+    }
+}
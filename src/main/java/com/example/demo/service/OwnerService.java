@@ -1,39 +1,234 @@
 package com.example.demo.service;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.example.demo.domain.Owner;
+import com.example.demo.repository.CarRepository;
 import com.example.demo.repository.OwnerRepository;
+import com.example.demo.service.event.CarChangedEvent;
+import com.example.demo.service.event.OwnerChangedEvent;
+import com.example.demo.web.dto.BatchResult;
+import com.example.demo.web.dto.CarResponse;
+import com.example.demo.web.dto.OwnerRequest;
+import com.example.demo.web.dto.OwnerResponse;
+import com.example.demo.web.error.NotFoundException;
+import com.example.demo.web.error.PreconditionFailedException;
 
 @Service
 public class OwnerService {
     private final OwnerRepository ownerRepository;
+    private final CarRepository carRepository;
+    private final ApproximateRowCounts rowCounts;
+    private final BatchInserter batchInserter;
+    private final ReadCaches caches;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate transactionTemplate;
 
-    public OwnerService(OwnerRepository ownerRepository) {
+    public OwnerService(OwnerRepository ownerRepository, CarRepository carRepository,
+                        ApproximateRowCounts rowCounts, BatchInserter batchInserter, ReadCaches caches,
+                        ApplicationEventPublisher events, PlatformTransactionManager transactionManager) {
         this.ownerRepository = ownerRepository;
+        this.carRepository = carRepository;
+        this.rowCounts = rowCounts;
+        this.batchInserter = batchInserter;
+        this.caches = caches;
+        this.events = events;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     public List<Owner> getOwners() {
         return ownerRepository.findAll();
     }
 
-    public Page<Owner> getOwners(Pageable pageable) {
-        return ownerRepository.findAll(pageable);
+    /**
+     * Returns a page of owners with their cars in a constant number of queries: the owner
+     * page, its count and one query for all cars of the owners on the page.
+     */
+    @Transactional(readOnly = true)
+    public Page<OwnerResponse> getOwners(Pageable pageable) {
+        Page<OwnerResponse> owners = ownerRepository.findAllResponses(pageable);
+        return owners.map(attachCars(owners.getContent()));
     }
 
-    public Owner saveOwner(Owner owner) {
-        return ownerRepository.save(owner);
+    /**
+     * Same as {@link #getOwners(Pageable)} but with the total counted exactly, estimated from
+     * {@link ApproximateRowCounts}, or skipped entirely.
+     */
+    @Transactional(readOnly = true)
+    public Slice<OwnerResponse> getOwners(Pageable pageable, TotalCount total) {
+        if (total == TotalCount.EXACT) {
+            return getOwners(pageable);
+        }
+        Slice<OwnerResponse> owners = ownerRepository.findResponseSlice(pageable);
+        Slice<OwnerResponse> withCars = owners.map(attachCars(owners.getContent()));
+        if (total == TotalCount.NONE) {
+            return withCars;
+        }
+        return ApproximateRowCounts.page(withCars, rowCounts.owners());
+    }
+
+    /**
+     * Keyset read: owners with an id greater than {@code afterId}, in id order, with their cars.
+     */
+    @Transactional(readOnly = true)
+    public List<OwnerResponse> getOwnersAfter(long afterId, int limit) {
+        List<OwnerResponse> owners = ownerRepository.findResponsesAfter(afterId, Limit.of(limit));
+        return owners.stream().map(attachCars(owners)).toList();
+    }
+
+    @Transactional
+    public OwnerResponse saveOwner(Owner owner) {
+        OwnerResponse before = owner.getOwnerId() == null ? null
+            : ownerRepository.findResponseById(owner.getOwnerId()).orElse(null);
+        return save(owner, before, null);
+    }
+
+    /**
+     * Replaces an existing owner. With {@code expectedVersion} (from If-Match) the update only
+     * succeeds if nobody changed the owner or its cars since that version.
+     */
+    @Transactional
+    public OwnerResponse updateOwner(Long id, Owner owner, Long expectedVersion) {
+        OwnerResponse before = ownerRepository.findResponseById(id)
+            .orElseThrow(() -> new NotFoundException("Owner not found"));
+        owner.setOwnerId(id);
+        return save(owner, before, expectedVersion);
+    }
+
+    // Cars in the request are saved with the owner (cascade), so they are published as changes too.
+    // Versions are taken from the database (or If-Match), never from the request body.
+    private OwnerResponse save(Owner owner, OwnerResponse before, Long expectedVersion) {
+        Map<Long, CarResponse> carsBefore = before == null ? Map.of()
+            : carsByOwner(List.of(before.ownerId())).getOrDefault(before.ownerId(), List.of()).stream()
+                .collect(Collectors.toMap(CarResponse::carId, Function.identity()));
+        if (before != null) {
+            if (expectedVersion != null && before.version() != expectedVersion) {
+                throw new PreconditionFailedException("Version is " + before.version() + ", not " + expectedVersion);
+            }
+            owner.setVersion(expectedVersion == null ? before.version() : expectedVersion);
+        }
+        if (owner.getCars() != null) {
+            owner.getCars().stream()
+                .filter(car -> car.getCarId() != null && carsBefore.containsKey(car.getCarId()))
+                .forEach(car -> car.setVersion(carsBefore.get(car.getCarId()).version()));
+        }
+        OwnerResponse saved;
+        try {
+            saved = OwnerResponse.from(ownerRepository.saveAndFlush(owner));
+        } catch (OptimisticLockingFailureException e) {
+            if (expectedVersion == null) {
+                throw e;
+            }
+            throw new PreconditionFailedException("Owner was modified since version " + expectedVersion);
+        }
+        List<CarResponse> changedCars = saved.cars().stream()
+            .filter(car -> !car.equals(carsBefore.get(car.carId())))
+            .toList();
+        if (!changedCars.isEmpty()) {
+            ownerRepository.incrementVersions(List.of(saved.ownerId()));
+            saved = new OwnerResponse(saved.ownerId(), saved.firstName(), saved.lastName(),
+                ownerRepository.findVersionById(saved.ownerId()).orElse(saved.version()), saved.cars());
+        }
+        caches.evictOwner(saved.ownerId());
+        saved.cars().forEach(car -> caches.evictCar(car.carId()));
+        events.publishEvent(new OwnerChangedEvent(before, saved));
+        changedCars.forEach(car -> events.publishEvent(new CarChangedEvent(carsBefore.get(car.carId()), car)));
+        return saved;
+    }
+
+    /**
+     * Inserts owners (without cars) with batched statements, reporting invalid items by position.
+     */
+    public BatchResult importOwners(Iterator<OwnerRequest> owners) {
+        return batchInserter.insert(owners,
+            requests -> request -> new Owner(null, request.firstName(), request.lastName(), List.of()),
+            Owner::getOwnerId,
+            owner -> events.publishEvent(new OwnerChangedEvent(null, OwnerResponse.from(owner))));
     }
 
     public void deleteOwner(Long id) {
-        ownerRepository.deleteById(id);
+        deleteOwner(id, null);
+    }
+
+    /**
+     * Deletes an owner with its cars; with {@code expectedVersion} (from If-Match) only if the
+     * owner is still at that version. Runs a constant number of statements however many cars the
+     * owner has: the cars are read once (for cache eviction and change events) and removed with a
+     * bulk DELETE instead of being loaded as entities and deleted one by one through the cascade.
+     */
+    public void deleteOwner(Long id, Long expectedVersion) {
+        record Deleted(OwnerResponse owner, List<CarResponse> cars) {}
+        Deleted deleted = transactionTemplate.execute(status -> {
+            OwnerResponse before = ownerRepository.findResponseById(id).orElse(null);
+            // the version bump also locks the row until the delete commits
+            if (expectedVersion != null
+                && (before == null || ownerRepository.incrementVersion(id, expectedVersion) == 0)) {
+                throw new PreconditionFailedException("Owner was modified or deleted since version " + expectedVersion);
+            }
+            if (before == null) {
+                return null;
+            }
+            List<CarResponse> cars = carsByOwner(List.of(id)).getOrDefault(id, List.of());
+            carRepository.deleteByOwnerIds(List.of(id));
+            ownerRepository.deleteAllByIdInBatch(List.of(id));
+            events.publishEvent(new OwnerChangedEvent(before.withCars(cars), null));
+            cars.forEach(car -> events.publishEvent(new CarChangedEvent(car, null)));
+            return new Deleted(before.withCars(cars), cars);
+        });
+        caches.evictOwner(id);
+        if (deleted != null) {
+            deleted.cars().forEach(car -> caches.evictCar(car.carId()));
+        }
+    }
+
+    @Cacheable(ReadCaches.OWNERS)
+    @Transactional(readOnly = true)
+    public OwnerResponse getOwner(Long id) {
+        OwnerResponse owner = ownerRepository.findResponseById(id)
+            .orElseThrow(() -> new com.example.demo.web.error.NotFoundException("Owner not found"));
+        return owner.withCars(carsByOwner(List.of(id)).getOrDefault(id, List.of()));
+    }
+
+    /**
+     * Current version of an owner, from the read cache when present, otherwise from a
+     * single-column lookup; lets conditional GETs answer 304 without loading the owner and cars.
+     */
+    @Transactional(readOnly = true)
+    public long getOwnerVersion(Long id) {
+        OwnerResponse cached = caches.cachedOwner(id);
+        if (cached != null) {
+            return cached.version();
+        }
+        return ownerRepository.findVersionById(id).orElseThrow(() -> new NotFoundException("Owner not found"));
+    }
+
+    // Loads the cars of all given owners with one query and returns a mapper attaching them
+    private Function<OwnerResponse, OwnerResponse> attachCars(List<OwnerResponse> owners) {
+        if (owners.isEmpty()) {
+            return Function.identity();
+        }
+        Map<Long, List<CarResponse>> cars = carsByOwner(owners.stream().map(OwnerResponse::ownerId).toList());
+        return owner -> owner.withCars(cars.getOrDefault(owner.ownerId(), List.of()));
     }
 
-    public Owner getOwner(Long id) {
-        return ownerRepository.findById(id).orElse(null);
+    private Map<Long, List<CarResponse>> carsByOwner(List<Long> ownerIds) {
+        return carRepository.findResponsesByOwnerIds(ownerIds).stream()
+            .collect(Collectors.groupingBy(CarResponse::ownerId));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,80 @@
+package com.example.demo.service;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.demo.web.dto.CarResponse;
+import com.example.demo.web.dto.OwnerResponse;
+
+/**
+ * Names of the by-id read caches and the evictions the write paths need. An owner entry embeds
+ * the owner's cars, so writes to a car also evict the entries of its current and previous owner.
+ * {@link #STATS} is never evicted; its entries just expire after {@code app.stats.cache-ttl}.
+ *
+ * <p>Inside a transaction entries are evicted at once and again after commit, since a read
+ * between the first eviction and the commit would cache the old value again.
+ */
+@Component
+public class ReadCaches {
+    public static final String CARS = "cars";
+    public static final String OWNERS = "owners";
+    public static final String STATS = "stats";
+
+    private final CacheManager cacheManager;
+
+    public ReadCaches(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public void evictCar(Long carId) {
+        evict(CARS, carId);
+    }
+
+    public void evictOwner(Long ownerId) {
+        evict(OWNERS, ownerId);
+    }
+
+    // Cached entries, if any; lets conditional GETs read the current version without a query
+    public CarResponse cachedCar(Long carId) {
+        return get(CARS, carId, CarResponse.class);
+    }
+
+    public OwnerResponse cachedOwner(Long ownerId) {
+        return get(OWNERS, ownerId, OwnerResponse.class);
+    }
+
+    public void clearOwners() {
+        Cache cache = cacheManager.getCache(OWNERS);
+        if (cache != null) {
+            cache.clear();
+            afterCommit(cache::clear);
+        }
+    }
+
+    private <T> T get(String name, Long id, Class<T> type) {
+        Cache cache = cacheManager.getCache(name);
+        return cache == null || id == null ? null : cache.get(id, type);
+    }
+
+    private void evict(String name, Long id) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null && id != null) {
+            cache.evict(id);
+            afterCommit(() -> cache.evict(id));
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+}
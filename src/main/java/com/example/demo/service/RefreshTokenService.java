@@ -0,0 +1,82 @@
+package com.example.demo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.domain.RefreshToken;
+import com.example.demo.repository.RefreshTokenRepository;
+
+/**
+ * Long-lived, single-use refresh tokens. Each successful refresh deletes the presented token and
+ * issues a new one, so a leaked token stops working as soon as its owner refreshes.
+ */
+@Service
+public class RefreshTokenService {
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final long expirationMillis;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${jwt.refresh.expiration:2592000000}") long expirationMillis) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.expirationMillis = expirationMillis;
+    }
+
+    @Transactional
+    public String issue(String username) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(
+            new RefreshToken(null, hash(token), username, Instant.now().plusMillis(expirationMillis)));
+        return token;
+    }
+
+    /**
+     * Redeems a refresh token and returns its user; empty if the token is unknown, expired or was
+     * already redeemed (including by a concurrent request).
+     */
+    @Transactional
+    public Optional<String> redeem(String token) {
+        String tokenHash = hash(token);
+        Optional<RefreshToken> stored = refreshTokenRepository.findByTokenHash(tokenHash);
+        if (stored.isEmpty() || refreshTokenRepository.deleteByTokenHash(tokenHash) != 1) {
+            return Optional.empty();
+        }
+        RefreshToken refreshToken = stored.get();
+        return refreshToken.getExpiresAt().isAfter(Instant.now())
+            ? Optional.of(refreshToken.getUsername()) : Optional.empty();
+    }
+
+    @Transactional
+    public void revokeAll(String username) {
+        refreshTokenRepository.deleteAllByUsername(username);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh.purge-interval:3600000}",
+               initialDelayString = "${jwt.refresh.purge-interval:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        refreshTokenRepository.deleteExpired(Instant.now());
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
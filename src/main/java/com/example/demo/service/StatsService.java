@@ -0,0 +1,48 @@
+package com.example.demo.service;
+
+import java.util.List;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.repository.CarRepository;
+import com.example.demo.repository.OwnerRepository;
+import com.example.demo.web.dto.BrandCount;
+import com.example.demo.web.dto.OwnershipCount;
+import com.example.demo.web.dto.YearCount;
+
+/**
+ * Inventory aggregates, grouped by the database. Results are cached for {@code app.stats.cache-ttl}
+ * and are not evicted on writes, so dashboards may lag behind by up to that long.
+ */
+@Service
+public class StatsService {
+    private final CarRepository carRepository;
+    private final OwnerRepository ownerRepository;
+
+    public StatsService(CarRepository carRepository, OwnerRepository ownerRepository) {
+        this.carRepository = carRepository;
+        this.ownerRepository = ownerRepository;
+    }
+
+    // Most common brands first
+    @Cacheable(cacheNames = ReadCaches.STATS, key = "'cars-by-brand:' + #limit")
+    @Transactional(readOnly = true)
+    public List<BrandCount> carsByBrand(int limit) {
+        return carRepository.countByBrand(Limit.of(limit));
+    }
+
+    @Cacheable(cacheNames = ReadCaches.STATS, key = "'cars-by-year'")
+    @Transactional(readOnly = true)
+    public List<YearCount> carsByYear() {
+        return carRepository.countByYear();
+    }
+
+    @Cacheable(cacheNames = ReadCaches.STATS, key = "'cars-per-owner'")
+    @Transactional(readOnly = true)
+    public List<OwnershipCount> carsPerOwner() {
+        return ownerRepository.countByCarsOwned();
+    }
+}
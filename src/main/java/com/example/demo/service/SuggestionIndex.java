@@ -0,0 +1,198 @@
+package com.example.demo.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.demo.repository.CarRepository;
+import com.example.demo.repository.OwnerRepository;
+import com.example.demo.service.event.CarChangedEvent;
+import com.example.demo.service.event.OwnerChangedEvent;
+import com.example.demo.web.dto.CarResponse;
+import com.example.demo.web.dto.OwnerResponse;
+import com.example.demo.web.dto.Suggestion;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Type-ahead index over car brands, car models and owner names, kept in sorted skip-list maps keyed
+ * by the normalized text (accents stripped, lower case, single spaces). A prefix query is a range
+ * scan of the map, so it costs O(log n + k) and never touches the database.
+ *
+ * <p>The index is loaded once at startup and then follows committed writes through
+ * {@link CarChangedEvent} and {@link OwnerChangedEvent}. Brands and models are counted, so a term
+ * disappears when its last car does. Owners are indexed as "first last" and "last first".
+ */
+@Slf4j
+@Component
+public class SuggestionIndex {
+    public static final String BRAND = "brand";
+    public static final String MODEL = "model";
+    public static final String OWNER = "owner";
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // Separates the name from the owner id in owner keys; sorts before any character of a name
+    private static final char ID_SEPARATOR = '\u0000';
+
+    private final CarRepository carRepository;
+    private final OwnerRepository ownerRepository;
+
+    private volatile ConcurrentSkipListMap<String, Term> brands = new ConcurrentSkipListMap<>();
+    private volatile ConcurrentSkipListMap<String, Term> models = new ConcurrentSkipListMap<>();
+    private volatile ConcurrentSkipListMap<String, Suggestion> owners = new ConcurrentSkipListMap<>();
+
+    public SuggestionIndex(CarRepository carRepository, OwnerRepository ownerRepository) {
+        this.carRepository = carRepository;
+        this.ownerRepository = ownerRepository;
+    }
+
+    /**
+     * Up to {@code limit} suggestions starting with {@code prefix}, alphabetically; {@code type}
+     * restricts them to one kind, {@code null} returns brands, then models, then owners.
+     */
+    public List<Suggestion> suggest(String prefix, String type, int limit) {
+        String key = normalizePrefix(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Stream<Suggestion> matches = switch (type == null ? "" : type) {
+            case BRAND -> terms(brands, key, BRAND);
+            case MODEL -> terms(models, key, MODEL);
+            case OWNER -> range(owners, key).values().stream().distinct();
+            case "" -> Stream.of(terms(brands, key, BRAND), terms(models, key, MODEL),
+                range(owners, key).values().stream().distinct()).flatMap(s -> s);
+            default -> throw new IllegalArgumentException(
+                "Unknown suggestion type " + type + ", use one of brand, model, owner");
+        };
+        return matches.limit(limit).toList();
+    }
+
+    /**
+     * Reloads the whole index from the database. Writers wait until it is done, so no change is
+     * lost; readers keep using the previous index until the new one is swapped in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        ConcurrentSkipListMap<String, Term> newBrands = new ConcurrentSkipListMap<>();
+        ConcurrentSkipListMap<String, Term> newModels = new ConcurrentSkipListMap<>();
+        ConcurrentSkipListMap<String, Suggestion> newOwners = new ConcurrentSkipListMap<>();
+        try (Stream<CarResponse> cars = carRepository.streamAllResponses()) {
+            cars.forEach(car -> {
+                add(newBrands, car.brand());
+                add(newModels, car.model());
+            });
+        }
+        try (Stream<OwnerResponse> all = ownerRepository.streamAllResponses()) {
+            all.forEach(owner -> addOwner(newOwners, owner));
+        }
+        brands = newBrands;
+        models = newModels;
+        owners = newOwners;
+        log.info("Suggestion index built in {} ms: {} brands, {} models, {} owner keys",
+            (System.nanoTime() - start) / 1_000_000, newBrands.size(), newModels.size(), newOwners.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCarChanged(CarChangedEvent event) {
+        if (event.before() != null) {
+            remove(brands, event.before().brand());
+            remove(models, event.before().model());
+        }
+        if (event.after() != null) {
+            add(brands, event.after().brand());
+            add(models, event.after().model());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onOwnerChanged(OwnerChangedEvent event) {
+        if (event.before() != null) {
+            ownerKeys(event.before()).forEach(owners::remove);
+        }
+        if (event.after() != null) {
+            addOwner(owners, event.after());
+        }
+    }
+
+    static String normalize(String text) {
+        return normalizePrefix(text).strip();
+    }
+
+    // Keeps a trailing space so "ann " matches "ann lee" but not "anna"
+    private static String normalizePrefix(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").stripLeading();
+    }
+
+    private static <V> NavigableMap<String, V> range(ConcurrentSkipListMap<String, V> map, String prefix) {
+        return map.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static Stream<Suggestion> terms(ConcurrentSkipListMap<String, Term> map, String prefix, String type) {
+        return range(map, prefix).values().stream().map(term -> new Suggestion(type, term.display(), null));
+    }
+
+    private static void add(ConcurrentSkipListMap<String, Term> map, String text) {
+        String key = normalize(text);
+        if (!key.isEmpty()) {
+            map.compute(key, (k, term) -> term == null ? new Term(text.strip(), 1) : term.plus(1));
+        }
+    }
+
+    private static void remove(ConcurrentSkipListMap<String, Term> map, String text) {
+        String key = normalize(text);
+        if (!key.isEmpty()) {
+            map.computeIfPresent(key, (k, term) -> term.count() <= 1 ? null : term.plus(-1));
+        }
+    }
+
+    private static void addOwner(ConcurrentSkipListMap<String, Suggestion> map, OwnerResponse owner) {
+        String display = Stream.of(owner.firstName(), owner.lastName())
+            .filter(part -> part != null && !part.isBlank())
+            .map(String::strip)
+            .reduce((first, last) -> first + " " + last)
+            .orElse(null);
+        if (display != null) {
+            Suggestion suggestion = new Suggestion(OWNER, display, owner.ownerId());
+            ownerKeys(owner).forEach(key -> map.put(key, suggestion));
+        }
+    }
+
+    private static List<String> ownerKeys(OwnerResponse owner) {
+        String first = normalize(owner.firstName());
+        String last = normalize(owner.lastName());
+        List<String> keys = new ArrayList<>(2);
+        for (String name : List.of(first + " " + last, last + " " + first)) {
+            String key = name.strip();
+            if (!key.isEmpty()) {
+                keys.add(key + ID_SEPARATOR + owner.ownerId());
+            }
+        }
+        return keys;
+    }
+
+    // Display text of the first car seen with this term, and how many cars currently use it
+    private record Term(String display, int count) {
+
+        Term plus(int delta) {
+            return new Term(display, count + delta);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.demo.service;
+
+/**
+ * How list endpoints compute the total number of rows: an exact {@code count(*)} per request,
+ * a periodically refreshed estimate, or no total at all (slice with has-next only).
+ */
+public enum TotalCount {
+    EXACT, ESTIMATE, NONE;
+
+    public static TotalCount parse(String value) {
+        for (TotalCount mode : values()) {
+            if (mode.name().equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("total must be one of exact, estimate, none");
+    }
+}
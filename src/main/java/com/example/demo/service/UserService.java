@@ -9,6 +9,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.demo.repository.UserRepository;
 
@@ -16,14 +17,16 @@ import com.example.demo.repository.UserRepository;
 public class UserService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final RefreshTokenService refreshTokenService;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, RefreshTokenService refreshTokenService) {
         this.userRepository = userRepository;
+        this.refreshTokenService = refreshTokenService;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-    System.out.println("[DEBUG] loadUserByUsername called: " + username);
         var userEntity = userRepository.findByUsername(username)
             .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
         var authorities = Arrays.stream(userEntity.getRoles().split(","))
@@ -36,4 +39,16 @@ public class UserService implements UserDetailsService {
             .authorities(authorities)
             .build();
     }
+
+    /**
+     * Invalidates every access and refresh token issued to the user so far, e.g. after a role or
+     * password change.
+     */
+    @Transactional
+    public void revokeTokens(String username) {
+        var userEntity = userRepository.findByUsername(username)
+            .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        userEntity.setTokenVersion(userEntity.getTokenVersion() + 1);
+        refreshTokenService.revokeAll(username);
+    }
 }
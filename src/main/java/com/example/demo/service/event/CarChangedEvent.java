@@ -0,0 +1,14 @@
+package com.example.demo.service.event;
+
+import com.example.demo.web.dto.CarResponse;
+
+/**
+ * Published by the services whenever a car is written: {@code before} is {@code null} for a new
+ * car, {@code after} is {@code null} for a deleted one.
+ */
+public record CarChangedEvent(CarResponse before, CarResponse after) {
+
+    public ChangeType type() {
+        return before == null ? ChangeType.CREATED : after == null ? ChangeType.DELETED : ChangeType.UPDATED;
+    }
+}
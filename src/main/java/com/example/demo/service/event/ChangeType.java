@@ -0,0 +1,5 @@
+package com.example.demo.service.event;
+
+public enum ChangeType {
+    CREATED, UPDATED, DELETED
+}
@@ -0,0 +1,15 @@
+package com.example.demo.service.event;
+
+import com.example.demo.web.dto.OwnerResponse;
+
+/**
+ * Published by the services whenever an owner is written: {@code before} is {@code null} for a
+ * new owner, {@code after} is {@code null} for a deleted one. Cars removed together with an owner
+ * are published as separate {@link CarChangedEvent}s.
+ */
+public record OwnerChangedEvent(OwnerResponse before, OwnerResponse after) {
+
+    public ChangeType type() {
+        return before == null ? ChangeType.CREATED : after == null ? ChangeType.DELETED : ChangeType.UPDATED;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.demo.service.outbox;
+
+import java.time.Instant;
+
+import com.example.demo.domain.OutboxEvent;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+/**
+ * One entry of the change feed as handed to an {@link OutboxSink}: {@code id} increases with
+ * commit order per instance and lets consumers drop the duplicates an at-least-once retry can
+ * produce; {@code payload} is the car or owner JSON as the API returns it.
+ */
+public record ChangeRecord(long id, String aggregate, long aggregateId, String type, Instant occurredAt,
+                           @JsonRawValue String payload) {
+
+    static ChangeRecord from(OutboxEvent event) {
+        return new ChangeRecord(event.getId(), event.getAggregateType(), event.getAggregateId(),
+            event.getChangeType(), event.getCreatedAt(), event.getPayload());
+    }
+}
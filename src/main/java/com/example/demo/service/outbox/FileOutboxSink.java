@@ -0,0 +1,37 @@
+package com.example.demo.service.outbox;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+// Appends each record as one JSON line (NDJSON) to a local file, e.g. for a log shipper to pick up
+public class FileOutboxSink implements OutboxSink {
+    private final Path path;
+    private final ObjectWriter writer;
+
+    public FileOutboxSink(Path path, ObjectWriter writer) {
+        this.path = path;
+        this.writer = writer;
+    }
+
+    @Override
+    public synchronized void publish(List<ChangeRecord> batch) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (ChangeRecord record : batch) {
+                out.write(writer.writeValueAsString(record));
+                out.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.demo.service.outbox;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+// POSTs each batch as a JSON array; any non-2xx answer or I/O error fails the batch
+public class HttpOutboxSink implements OutboxSink {
+    private final RestClient restClient;
+    private final String url;
+
+    public HttpOutboxSink(RestClient.Builder builder, String url, Duration timeout) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = builder.requestFactory(requestFactory).build();
+        this.url = url;
+    }
+
+    @Override
+    public void publish(List<ChangeRecord> batch) {
+        restClient.post()
+            .uri(url)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(batch)
+            .retrieve()
+            .toBodilessEntity();
+    }
+}
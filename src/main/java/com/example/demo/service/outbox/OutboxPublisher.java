@@ -0,0 +1,111 @@
+package com.example.demo.service.outbox;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.domain.OutboxEvent;
+import com.example.demo.repository.OutboxEventRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains the outbox in the background: every {@code app.outbox.flush-interval} it hands batches
+ * of up to {@code app.outbox.batch-size} events, oldest first, to the {@link OutboxSink} and
+ * deletes them in the same transaction, until a short batch shows the outbox is empty. A failed
+ * batch is rolled back and retried on the next run. Only one batch is held in memory at a time.
+ *
+ * <p>Metrics: {@code outbox.lag} (age of the oldest pending event, seconds), {@code outbox.pending},
+ * {@code outbox.delivery.lag} (commit to publish, per event), {@code outbox.published} and
+ * {@code outbox.publish.failures}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "true")
+public class OutboxPublisher {
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Counter published;
+    private final Counter failures;
+    private final Timer deliveryLag;
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final AtomicLong pending = new AtomicLong();
+
+    public OutboxPublisher(OutboxEventRepository outboxEventRepository, OutboxSink sink,
+                           PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                           @Value("${app.outbox.batch-size:100}") int batchSize) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sink = sink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.published = Counter.builder("outbox.published").register(meterRegistry);
+        this.failures = Counter.builder("outbox.publish.failures").register(meterRegistry);
+        this.deliveryLag = Timer.builder("outbox.delivery.lag")
+            .description("Time from the change being written to it being published")
+            .register(meterRegistry);
+        Gauge.builder("outbox.lag", lagMillis, millis -> millis.get() / 1000.0)
+            .description("Age of the oldest unpublished change")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        Gauge.builder("outbox.pending", pending, AtomicLong::get).register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.flush-interval:1000}",
+               initialDelayString = "${app.outbox.flush-interval:1000}")
+    public void flush() {
+        try {
+            int count;
+            do {
+                count = publishBatch();
+            } while (count == batchSize);
+        } catch (Exception e) {
+            failures.increment();
+            log.warn("Publishing outbox events failed, retrying in the next run: {}", e.toString());
+        }
+        Instant oldest = outboxEventRepository.findOldestCreatedAt().orElse(null);
+        lagMillis.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, Instant.now()).toMillis()));
+        pending.set(outboxEventRepository.count());
+    }
+
+    // Returns the number of events published
+    int publishBatch() {
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> {
+            List<OutboxEvent> events = outboxEventRepository.lockOldest(Limit.of(batchSize));
+            if (!events.isEmpty()) {
+                deliver(events.stream().map(ChangeRecord::from).toList());
+                outboxEventRepository.deleteAllByIdInBatch(events.stream().map(OutboxEvent::getId).toList());
+            }
+            return events;
+        });
+        Instant now = Instant.now();
+        batch.forEach(event -> deliveryLag.record(Duration.between(event.getCreatedAt(), now)));
+        published.increment(batch.size());
+        return batch.size();
+    }
+
+    private void deliver(List<ChangeRecord> records) {
+        try {
+            sink.publish(records);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Outbox sink failed: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.demo.service.outbox;
+
+import java.util.List;
+
+/**
+ * Destination of the change feed, chosen with {@code app.outbox.sink}. Delivery is at least
+ * once: when {@link #publish} throws, the whole batch stays in the outbox and is offered again.
+ */
+public interface OutboxSink {
+
+    /** Delivers a batch, oldest first. */
+    void publish(List<ChangeRecord> batch) throws Exception;
+}
@@ -0,0 +1,61 @@
+package com.example.demo.service.outbox;
+
+import java.time.Instant;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.domain.OutboxEvent;
+import com.example.demo.repository.OutboxEventRepository;
+import com.example.demo.service.event.CarChangedEvent;
+import com.example.demo.service.event.ChangeType;
+import com.example.demo.service.event.OwnerChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Records every car and owner change in the outbox table within the transaction that makes the
+ * change, so the feed contains exactly the committed changes. Publishing is left to
+ * {@link OutboxPublisher}; the write path only pays for one batched INSERT per change.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "true")
+public class OutboxWriter {
+    public static final String CAR = "car";
+    public static final String OWNER = "owner";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxWriter(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onCarChanged(CarChangedEvent event) {
+        var car = event.type() == ChangeType.DELETED ? event.before() : event.after();
+        append(CAR, car.carId(), event.type(), car);
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onOwnerChanged(OwnerChangedEvent event) {
+        var owner = event.type() == ChangeType.DELETED ? event.before() : event.after();
+        append(OWNER, owner.ownerId(), event.type(), owner);
+    }
+
+    private void append(String aggregate, Long id, ChangeType type, Object state) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(state);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + aggregate + " " + id, e);
+        }
+        outboxEventRepository.save(new OutboxEvent(aggregate, id, type.name(), payload, Instant.now()));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demo.service.outbox;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Bounded in-memory queue for in-process consumers. A batch is accepted whole or not at all:
+ * when the queue cannot take it the publish fails and the batch waits in the outbox, so a slow
+ * consumer backs up into the database instead of into the heap. The consumer has to call
+ * {@link #drainTo}; the application itself has none.
+ */
+public class QueueOutboxSink implements OutboxSink {
+    private final BlockingQueue<ChangeRecord> queue;
+
+    public QueueOutboxSink(int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @Override
+    public synchronized void publish(List<ChangeRecord> batch) {
+        if (queue.remainingCapacity() < batch.size()) {
+            throw new IllegalStateException("Outbox queue full: " + queue.size() + " records waiting");
+        }
+        queue.addAll(batch);
+    }
+
+    /** Moves up to {@code max} records, oldest first, into {@code target}; returns how many. */
+    public int drainTo(Collection<? super ChangeRecord> target, int max) {
+        return queue.drainTo(target, max);
+    }
+
+    public int size() {
+        return queue.size();
+    }
+}
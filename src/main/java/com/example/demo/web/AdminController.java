@@ -0,0 +1,35 @@
+package com.example.demo.web;
+
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.service.CarService;
+import com.example.demo.web.dto.DeleteResult;
+
+import io.swagger.v3.oas.annotations.Operation;
+
+// Maintenance operations; /api/admin/** requires ROLE_ADMIN (see SecurityConfig)
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+    private final CarService carService;
+
+    public AdminController(CarService carService) {
+        this.carService = carService;
+    }
+
+    @DeleteMapping("/cars")
+    @Operation(summary = "Delete cars by filter",
+        description = "Bulk-deletes all cars matching the same filters as /api/cars/search; at least one is required. "
+            + "Cars are deleted in chunks of 1000, each committed on its own: the operation is not atomic, and "
+            + "after a failure the cars of the chunks already committed stay deleted, so repeat the request")
+    public DeleteResult deleteCars(@RequestParam(required = false) String brand,
+                                   @RequestParam(required = false) String model,
+                                   @RequestParam(required = false) Integer yearFrom,
+                                   @RequestParam(required = false) Integer yearTo,
+                                   @RequestParam(required = false) Long ownerId) {
+        return new DeleteResult(carService.deleteCars(brand, model, yearFrom, yearTo, ownerId));
+    }
+}
@@ -1,12 +1,17 @@
 package com.example.demo.web;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -15,8 +20,11 @@ import org.springframework.web.bind.annotation.RestController;
 import com.example.demo.domain.User;
 import com.example.demo.repository.UserRepository;
 import com.example.demo.security.JwtTokenUtil;
+import com.example.demo.service.RefreshTokenService;
 import com.example.demo.web.dto.LoginRequest;
 import com.example.demo.web.dto.LoginResponse;
+import com.example.demo.web.dto.RefreshRequest;
+import com.example.demo.web.error.TooBusyException;
 
 import jakarta.validation.Valid;
 
@@ -27,13 +35,21 @@ public class AuthController {
     private final JwtTokenUtil jwtTokenUtil;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserDetailsService userDetailsService;
+    private final RefreshTokenService refreshTokenService;
+    private final boolean statelessTokens;
 
     public AuthController(AuthenticationManager authenticationManager, JwtTokenUtil jwtTokenUtil,
-                          UserRepository userRepository, PasswordEncoder passwordEncoder) {
+                          UserRepository userRepository, PasswordEncoder passwordEncoder,
+                          UserDetailsService userDetailsService, RefreshTokenService refreshTokenService,
+                          @Value("${jwt.stateless.enabled:false}") boolean statelessTokens) {
         this.authenticationManager = authenticationManager;
         this.jwtTokenUtil = jwtTokenUtil;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userDetailsService = userDetailsService;
+        this.refreshTokenService = refreshTokenService;
+        this.statelessTokens = statelessTokens;
     }
 
     @PostMapping("/auth/login")
@@ -43,9 +59,16 @@ public class AuthController {
                 new UsernamePasswordAuthenticationToken(request.username(), request.password())
             );
             UserDetails user = (UserDetails) authentication.getPrincipal();
-            String token = jwtTokenUtil.generateToken(user.getUsername());
-            return ResponseEntity.ok(new LoginResponse(token, "Bearer"));
+            String token = issueToken(user);
+            String refreshToken = refreshTokenService.issue(user.getUsername());
+            return ResponseEntity.ok(new LoginResponse(token, "Bearer", refreshToken));
         } catch (AuthenticationException ex) {
+            // The provider wraps failures of the user lookup; an overloaded hashing pool is a 503
+            // with Retry-After (GlobalExceptionHandler), not a wrong password
+            if (ex instanceof InternalAuthenticationServiceException
+                    && ex.getCause() instanceof TooBusyException busy) {
+                throw busy;
+            }
             var body = java.util.Map.of(
                 "error", "invalid_credentials",
                 "message", "Username or password incorrect",
@@ -55,6 +78,25 @@ public class AuthController {
         }
     }
 
+    // Trades a refresh token for a new access token and a new refresh token, without a password check
+    @PostMapping("/auth/refresh")
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshRequest request) {
+        var username = refreshTokenService.redeem(request.refreshToken());
+        try {
+            if (username.isPresent()) {
+                UserDetails user = userDetailsService.loadUserByUsername(username.get());
+                return ResponseEntity.ok(
+                    new LoginResponse(issueToken(user), "Bearer", refreshTokenService.issue(user.getUsername())));
+            }
+        } catch (UsernameNotFoundException ignored) {
+            // user was deleted after the refresh token was issued
+        }
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(java.util.Map.of(
+            "error", "invalid_refresh_token",
+            "message", "Refresh token is invalid, expired or already used"
+        ));
+    }
+
     @PostMapping("/auth/register")
     public ResponseEntity<?> register(@Valid @RequestBody LoginRequest request) {
         if (userRepository.findByUsername(request.username()).isPresent()) {
@@ -73,4 +115,14 @@ public class AuthController {
             "status", "created"
         ));
     }
+
+    private String issueToken(UserDetails user) {
+        if (!statelessTokens) {
+            return jwtTokenUtil.generateToken(user.getUsername());
+        }
+        User entity = userRepository.findByUsername(user.getUsername())
+            .orElseThrow(() -> new UsernameNotFoundException("User not found: " + user.getUsername()));
+        var roles = user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+        return jwtTokenUtil.generateToken(user.getUsername(), entity.getId(), roles, entity.getTokenVersion());
+    }
 }
@@ -1,49 +1,174 @@
 package com.example.demo.web;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.demo.domain.Car;
 import com.example.demo.service.CarService;
+import com.example.demo.service.TotalCount;
+import com.example.demo.web.dto.BatchResult;
+import com.example.demo.web.dto.CarRequest;
+import com.example.demo.web.dto.CarResponse;
+import com.example.demo.web.dto.CursorPage;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
 import io.swagger.v3.oas.annotations.Operation;
 
 @RestController
 @RequestMapping("/api/cars")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.ETAG)
 public class CarController {
     private final CarService carService;
+    private final ChangeStreamBroadcaster changeStreams;
+    private final ObjectWriter exportWriter;
+    private final ObjectReader importReader;
 
-    public CarController(CarService carService) {
+    public CarController(CarService carService, ChangeStreamBroadcaster changeStreams, ObjectMapper objectMapper) {
         this.carService = carService;
+        this.changeStreams = changeStreams;
+        this.importReader = objectMapper.readerFor(CarRequest.class);
+        this.exportWriter = objectMapper.writerFor(CarResponse.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
         @GetMapping
-        @Operation(summary = "List cars", description = "Returns paginated list of cars")
-        public Page<Car> getCars(@PageableDefault(size = 10) Pageable pageable) {
-            return carService.getCars(pageable);
+        @Operation(summary = "List cars",
+            description = "Returns paginated list of cars; total=estimate|none avoids a count query per page")
+        public Slice<CarResponse> getCars(@PageableDefault(size = 10) Pageable pageable,
+                                          @RequestParam(defaultValue = "exact") String total) {
+            return carService.getCars(pageable, TotalCount.parse(total));
         }
 
+    @GetMapping(params = "after")
+    @Operation(summary = "List cars by cursor",
+        description = "Keyset pagination in id order; pass an empty 'after' for the first page, then nextCursor")
+    public CursorPage<CarResponse> getCarsAfter(@RequestParam String after,
+                                                @RequestParam(defaultValue = "10") int size) {
+        CursorPage.checkSize(size);
+        var cars = carService.getCarsAfter(CursorPage.decode(after), size + 1);
+        return CursorPage.of(cars, size, CarResponse::carId);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search cars",
+        description = "Filters by brand, model, year range and owner; sortable by carId, brand, model or year")
+    public Page<CarResponse> searchCars(@RequestParam(required = false) String brand,
+                                        @RequestParam(required = false) String model,
+                                        @RequestParam(required = false) Integer yearFrom,
+                                        @RequestParam(required = false) Integer yearTo,
+                                        @RequestParam(required = false) Long ownerId,
+                                        @PageableDefault(size = 10) Pageable pageable) {
+        return carService.searchCars(brand, model, yearFrom, yearTo, ownerId, pageable);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all cars",
+        description = "Streams every car as newline-delimited JSON, in id order, straight from a database cursor")
+    public ResponseEntity<StreamingResponseBody> exportCars() {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = exportWriter.createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                carService.exportCars(car -> {
+                    try {
+                        exportWriter.writeValue(generator, car);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .header("Content-Disposition", "attachment; filename=\"cars.ndjson\"")
+            .body(body);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream car changes",
+        description = "Committed car changes as Server-Sent Events named created, updated or deleted, "
+            + "with the car as data; replaces polling the list endpoints")
+    public SseEmitter streamCars() {
+        return changeStreams.subscribe(ChangeStreamBroadcaster.CARS);
+    }
+
     @GetMapping("/{id}")
-    public Car getCar(@PathVariable Long id) { return carService.getCar(id); }
+    @Operation(summary = "Get a car",
+        description = "Sends an ETag; a matching If-None-Match is answered with 304 from the version alone")
+    public ResponseEntity<CarResponse> getCar(@PathVariable Long id,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                              String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String current = ETags.of(id, carService.getCarVersion(id));
+            if (ETags.matches(ifNoneMatch, current)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+            }
+        }
+        CarResponse car = carService.getCar(id);
+        return ResponseEntity.ok().eTag(ETags.of(id, car.version())).body(car);
+    }
 
     @PostMapping
-    public Car createCar(@RequestBody Car car) {
+    public CarResponse createCar(@RequestBody Car car) {
         return carService.saveCar(car);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Create cars in bulk",
+        description = "Inserts up to 10000 cars with batched statements; rejected items are reported by index")
+    public BatchResult createCars(@RequestBody List<CarRequest> cars) {
+        BatchResult.checkSize(cars.size());
+        return carService.importCars(cars.iterator());
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Import cars",
+        description = "Streams one car per line (NDJSON) into batched inserts; rejected lines are reported by index")
+    public BatchResult importCars(InputStream body) {
+        return carService.importCars(Ndjson.read(body, importReader));
+    }
+
+    @PutMapping("/{id}")
+    @Operation(summary = "Replace a car", description = "With If-Match, fails with 412 if the car changed meanwhile")
+    public ResponseEntity<CarResponse> updateCar(@PathVariable Long id, @RequestBody Car car,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                 String ifMatch) {
+        CarResponse updated = carService.updateCar(id, car, ETags.expectedVersion(ifMatch, id));
+        return ResponseEntity.ok().eTag(ETags.of(id, updated.version())).body(updated);
+    }
+
     @DeleteMapping("/{id}")
-    public void deleteCar(@PathVariable Long id) {
-        carService.deleteCar(id);
+    @Operation(summary = "Delete a car", description = "With If-Match, fails with 412 if the car changed meanwhile")
+    public void deleteCar(@PathVariable Long id,
+                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        carService.deleteCar(id, ETags.expectedVersion(ifMatch, id));
     }
 }
@@ -0,0 +1,238 @@
+package com.example.demo.web;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.demo.service.event.CarChangedEvent;
+import com.example.demo.service.event.ChangeType;
+import com.example.demo.service.event.OwnerChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fans committed car and owner changes out to Server-Sent Event subscribers. Each change is
+ * serialized once and the same event is queued for every subscriber; each subscriber's queue is
+ * drained on a dedicated pool of {@code app.sse.send-threads}, so neither the writing thread nor
+ * the application task executor ever waits on a client socket.
+ *
+ * <p>A subscriber is disconnected and counted in {@code sse.dropped{reason}} when its queue of
+ * {@code app.sse.buffer-size} events is full ({@code overflow}), when a single send has been
+ * blocked for {@code app.sse.send-timeout} ({@code stalled}) or when the pool's queue is full
+ * ({@code rejected}). Clients are expected to reconnect and reload.
+ */
+@Slf4j
+@Component
+class ChangeStreamBroadcaster implements DisposableBean {
+    static final String CARS = "cars";
+    static final String OWNERS = "owners";
+
+    private final Map<String, Set<Subscriber>> subscribers = Map.of(
+        CARS, ConcurrentHashMap.newKeySet(),
+        OWNERS, ConcurrentHashMap.newKeySet());
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor executor;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+    private final AtomicLong sequence = new AtomicLong();
+
+    ChangeStreamBroadcaster(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                            @Value("${app.sse.buffer-size:256}") int bufferSize,
+                            @Value("${app.sse.timeout:1800000}") long timeoutMillis,
+                            @Value("${app.sse.send-threads:4}") int sendThreads,
+                            @Value("${app.sse.send-queue-capacity:10000}") int sendQueueCapacity,
+                            @Value("${app.sse.send-timeout:5000}") long sendTimeoutMillis) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(sendThreads, sendThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(sendQueueCapacity), r -> {
+                Thread thread = new Thread(r, "sse-send-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "sse.send");
+        subscribers.forEach((stream, set) -> Gauge.builder("sse.subscribers", set, Set::size)
+            .tag("stream", stream)
+            .register(meterRegistry));
+    }
+
+    SseEmitter subscribe(String stream) {
+        return subscribe(stream, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(String stream, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(stream, emitter);
+        emitter.onCompletion(subscriber::remove);
+        emitter.onTimeout(subscriber::remove);
+        emitter.onError(e -> subscriber.remove());
+        subscribers.get(stream).add(subscriber);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarChanged(CarChangedEvent event) {
+        broadcast(CARS, event.type(), event.type() == ChangeType.DELETED ? event.before() : event.after());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOwnerChanged(OwnerChangedEvent event) {
+        broadcast(OWNERS, event.type(), event.type() == ChangeType.DELETED ? event.before() : event.after());
+    }
+
+    // Keeps idle connections open through proxies and finds the ones whose client has gone
+    @Scheduled(fixedDelayString = "${app.sse.heartbeat-interval:15000}",
+               initialDelayString = "${app.sse.heartbeat-interval:15000}")
+    public void heartbeat() {
+        Set<DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.offer(ping)));
+    }
+
+    // A client that stops reading fills its socket buffer and then blocks the send until Tomcat's
+    // write timeout; stop feeding it now so only that one send thread stays tied up
+    @Scheduled(fixedDelayString = "${app.sse.send-timeout:5000}", initialDelayString = "${app.sse.send-timeout:5000}")
+    public void disconnectStalled() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> {
+            long started = subscriber.sendStartedNanos;
+            if (started != 0 && now - started > sendTimeoutNanos) {
+                subscriber.drop("stalled");
+            }
+        }));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void broadcast(String stream, ChangeType type, Object state) {
+        Set<Subscriber> targets = subscribers.get(stream);
+        if (targets.isEmpty()) {
+            return;
+        }
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(state);
+        } catch (JsonProcessingException e) {
+            log.warn("Cannot serialize {} change: {}", stream, e.getMessage());
+            return;
+        }
+        Set<DataWithMediaType> event = SseEmitter.event()
+            .id(Long.toString(sequence.incrementAndGet()))
+            .name(type.name().toLowerCase(Locale.ROOT))
+            .data(data)
+            .build();
+        targets.forEach(subscriber -> subscriber.offer(event));
+    }
+
+    private final class Subscriber {
+        private final String stream;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean dropped = new AtomicBoolean();
+        private volatile long sendStartedNanos;
+
+        Subscriber(String stream, SseEmitter emitter) {
+            this.stream = stream;
+            this.emitter = emitter;
+        }
+
+        void offer(Set<DataWithMediaType> event) {
+            if (dropped.get()) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                drop("overflow");
+                return;
+            }
+            scheduleDrain();
+        }
+
+        // Stops queuing for this subscriber; the drain task completes the emitter once no send is
+        // in progress, since completing waits for one
+        void drop(String reason) {
+            if (!dropped.compareAndSet(false, true)) {
+                return;
+            }
+            Counter.builder("sse.dropped").tag("stream", stream).tag("reason", reason)
+                .register(meterRegistry).increment();
+            remove();
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // no drain is running, so nothing holds the emitter
+                    drop("rejected");
+                    emitter.complete();
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<DataWithMediaType> event;
+                while (!dropped.get() && (event = buffer.poll()) != null) {
+                    sendStartedNanos = System.nanoTime();
+                    emitter.send(event);
+                    sendStartedNanos = 0;
+                }
+                if (dropped.get()) {
+                    emitter.complete();
+                    return;
+                }
+            } catch (IOException | IllegalStateException e) {
+                // client gone or emitter already completed
+                remove();
+                return;
+            } finally {
+                sendStartedNanos = 0;
+            }
+            draining.set(false);
+            // an event offered after the last poll but before the flag was cleared
+            if (!buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        void remove() {
+            subscribers.get(stream).remove(this);
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.web;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.example.demo.web.error.PreconditionFailedException;
+
+// Strong entity tags derived from id and version, so validating them never needs the response body
+final class ETags {
+
+    private ETags() {}
+
+    static String of(Long id, long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    /**
+     * If-None-Match: whether {@code etag} is listed (weak comparison, as RFC 9110 requires for
+     * this header) or the header is {@code *}.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        return tags(ifNoneMatch).stream()
+            .anyMatch(tag -> tag.equals("*") || stripWeak(tag).equals(etag));
+    }
+
+    /**
+     * If-Match: the version the client expects the resource with {@code id} to be at, or
+     * {@code null} without a header or with {@code *}. Tags that cannot be ours, weak ones
+     * included, fail the precondition.
+     */
+    static Long expectedVersion(String ifMatch, Long id) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) {
+            return null;
+        }
+        String prefix = "\"" + id + "-";
+        List<String> ours = tags(ifMatch).stream()
+            .filter(tag -> tag.startsWith(prefix) && tag.endsWith("\""))
+            .toList();
+        if (ours.size() != 1) {
+            throw new PreconditionFailedException("If-Match must carry the current ETag of this resource");
+        }
+        String tag = ours.get(0);
+        try {
+            return Long.parseLong(tag.substring(prefix.length(), tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("Malformed ETag " + tag);
+        }
+    }
+
+    private static List<String> tags(String header) {
+        return Arrays.stream(header.split(",")).map(String::strip).filter(tag -> !tag.isEmpty()).toList();
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.demo.web;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+// Newline-delimited JSON request bodies, read lazily one line at a time
+final class Ndjson {
+
+    private Ndjson() {}
+
+    /**
+     * Iterates over the non-blank lines of {@code body}; a line that is not valid JSON for
+     * {@code reader} yields {@code null} so the caller can report it by position.
+     */
+    static <T> Iterator<T> read(InputStream body, ObjectReader reader) {
+        return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)).lines()
+            .filter(line -> !line.isBlank())
+            .<T>map(line -> parse(reader, line))
+            .iterator();
+    }
+
+    private static <T> T parse(ObjectReader reader, String line) {
+        try {
+            return reader.readValue(line);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+}
@@ -1,81 +1,125 @@
 package com.example.demo.web;
 
-import java.util.HashMap;
+import java.io.InputStream;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.example.demo.domain.Owner;
 import com.example.demo.service.OwnerService;
+import com.example.demo.service.TotalCount;
+import com.example.demo.web.dto.BatchResult;
+import com.example.demo.web.dto.CursorPage;
+import com.example.demo.web.dto.Links;
+import com.example.demo.web.dto.OwnerModel;
+import com.example.demo.web.dto.OwnerPageResponse;
+import com.example.demo.web.dto.OwnerRequest;
+import com.example.demo.web.dto.OwnerResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
 @RestController
 @RequestMapping("/api/owners")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.ETAG)
 public class OwnerController {
+    private static final Links COLLECTION_LINKS = Links.self("/api/owners");
+
     private final OwnerService ownerService;
+    private final ChangeStreamBroadcaster changeStreams;
+    private final ObjectReader importReader;
 
-    public OwnerController(OwnerService ownerService) {
+    public OwnerController(OwnerService ownerService, ChangeStreamBroadcaster changeStreams,
+                           ObjectMapper objectMapper) {
         this.ownerService = ownerService;
+        this.changeStreams = changeStreams;
+        this.importReader = objectMapper.readerFor(OwnerRequest.class);
     }
 
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getOwners(@PageableDefault(size = 10) Pageable pageable) {
-        Page<Owner> ownerPage = ownerService.getOwners(pageable);
-        List<Map<String,Object>> owners = ownerPage.getContent().stream()
-            .map(owner -> Map.<String,Object>of(
-                "owner", owner,
-                "_links", Map.of(
-                    "self", "/api/owners/" + owner.getOwnerId()
-                )
-            ))
-            .collect(Collectors.toList());
-        Map<String, Object> response = new HashMap<>();
-        response.put("_embedded", Map.of("owners", owners));
-        response.put("_links", Map.of(
-            "self", "/api/owners"
-        ));
-        Map<String, Object> pageInfo = new HashMap<>();
-        pageInfo.put("size", ownerPage.getSize());
-        pageInfo.put("totalElements", ownerPage.getTotalElements());
-        pageInfo.put("totalPages", ownerPage.getTotalPages());
-        pageInfo.put("number", ownerPage.getNumber());
-        response.put("page", pageInfo);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<OwnerPageResponse> getOwners(@PageableDefault(size = 10) Pageable pageable,
+                                                       @RequestParam(defaultValue = "exact") String total) {
+        Slice<OwnerResponse> ownerPage = ownerService.getOwners(pageable, TotalCount.parse(total));
+        return ResponseEntity.ok(OwnerPageResponse.of(ownerPage, COLLECTION_LINKS));
+    }
+
+    @GetMapping(params = "after")
+    public CursorPage<OwnerResponse> getOwnersAfter(@RequestParam String after,
+                                                    @RequestParam(defaultValue = "10") int size) {
+        CursorPage.checkSize(size);
+        var owners = ownerService.getOwnersAfter(CursorPage.decode(after), size + 1);
+        return CursorPage.of(owners, size, OwnerResponse::ownerId);
     }
 
+    // The ETag also changes when any of the owner's cars does; 304 is answered from the version alone
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String,Object>> getOwner(@PathVariable Long id) {
-        Owner owner = ownerService.getOwner(id);
-        Map<String,Object> body = Map.of(
-            "owner", owner,
-            "_links", Map.of(
-                "self", "/api/owners/" + id,
-                "collection", "/api/owners"
-            )
-        );
-        return ResponseEntity.ok(body);
+    public ResponseEntity<OwnerModel> getOwner(@PathVariable Long id,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                               String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String current = ETags.of(id, ownerService.getOwnerVersion(id));
+            if (ETags.matches(ifNoneMatch, current)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+            }
+        }
+        OwnerResponse owner = ownerService.getOwner(id);
+        return ResponseEntity.ok().eTag(ETags.of(id, owner.version()))
+            .body(new OwnerModel(owner, new Links("/api/owners/" + id, "/api/owners")));
     }
 
     @PostMapping
-    public Owner createOwner(@RequestBody Owner owner) {
+    public OwnerResponse createOwner(@RequestBody Owner owner) {
         return ownerService.saveOwner(owner);
     }
 
+    @PostMapping("/batch")
+    public BatchResult createOwners(@RequestBody List<OwnerRequest> owners) {
+        BatchResult.checkSize(owners.size());
+        return ownerService.importOwners(owners.iterator());
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public BatchResult importOwners(InputStream body) {
+        return ownerService.importOwners(Ndjson.read(body, importReader));
+    }
+
+    /**
+     * Committed owner changes as Server-Sent Events named {@code created}, {@code updated} or
+     * {@code deleted}, with the owner (and its cars) as data.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOwners() {
+        return changeStreams.subscribe(ChangeStreamBroadcaster.OWNERS);
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<OwnerResponse> updateOwner(@PathVariable Long id, @RequestBody Owner owner,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                     String ifMatch) {
+        OwnerResponse updated = ownerService.updateOwner(id, owner, ETags.expectedVersion(ifMatch, id));
+        return ResponseEntity.ok().eTag(ETags.of(id, updated.version())).body(updated);
+    }
+
     @DeleteMapping("/{id}")
-    public void deleteOwner(@PathVariable Long id) {
-        ownerService.deleteOwner(id);
+    public void deleteOwner(@PathVariable Long id,
+                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ownerService.deleteOwner(id, ETags.expectedVersion(ifMatch, id));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,50 @@
+package com.example.demo.web;
+
+import java.util.List;
+
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.service.StatsService;
+import com.example.demo.web.dto.BrandCount;
+import com.example.demo.web.dto.OwnershipCount;
+import com.example.demo.web.dto.YearCount;
+
+import io.swagger.v3.oas.annotations.Operation;
+
+@RestController
+@RequestMapping("/api/stats")
+@CrossOrigin(origins = "*")
+public class StatsController {
+    private static final int MAX_BRANDS = 1000;
+
+    private final StatsService statsService;
+
+    public StatsController(StatsService statsService) {
+        this.statsService = statsService;
+    }
+
+    @GetMapping("/cars-by-brand")
+    @Operation(summary = "Cars per brand", description = "Most common brands first, at most limit rows")
+    public List<BrandCount> carsByBrand(@RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || limit > MAX_BRANDS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_BRANDS);
+        }
+        return statsService.carsByBrand(limit);
+    }
+
+    @GetMapping("/cars-by-year")
+    @Operation(summary = "Cars per model year")
+    public List<YearCount> carsByYear() {
+        return statsService.carsByYear();
+    }
+
+    @GetMapping("/cars-per-owner")
+    @Operation(summary = "Cars-per-owner distribution", description = "Number of owners owning 0, 1, 2, ... cars")
+    public List<OwnershipCount> carsPerOwner() {
+        return statsService.carsPerOwner();
+    }
+}
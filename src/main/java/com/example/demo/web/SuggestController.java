@@ -0,0 +1,39 @@
+package com.example.demo.web;
+
+import java.util.List;
+
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.service.SuggestionIndex;
+import com.example.demo.web.dto.Suggestion;
+
+import io.swagger.v3.oas.annotations.Operation;
+
+@RestController
+@RequestMapping("/api/suggest")
+@CrossOrigin(origins = "*")
+public class SuggestController {
+    private static final int MAX_LIMIT = 50;
+
+    private final SuggestionIndex suggestionIndex;
+
+    public SuggestController(SuggestionIndex suggestionIndex) {
+        this.suggestionIndex = suggestionIndex;
+    }
+
+    @GetMapping
+    @Operation(summary = "Type-ahead suggestions",
+        description = "Brands, models and owner names starting with q, served from memory; type=brand|model|owner")
+    public List<Suggestion> suggest(@RequestParam String q,
+                                    @RequestParam(required = false) String type,
+                                    @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return suggestionIndex.suggest(q, type, limit);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.demo.web.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk insert: ids of the created rows in input order, and one error per rejected
+ * item identified by its zero-based position in the request.
+ */
+public record BatchResult(int received, List<Long> createdIds, List<ItemError> errors) {
+
+    // Upper bound for JSON array requests; the NDJSON import endpoints stream and are not limited
+    public static final int MAX_ITEMS = 10_000;
+
+    public static void checkSize(int size) {
+        if (size > MAX_ITEMS) {
+            throw new IllegalArgumentException("at most " + MAX_ITEMS + " items per batch, use the import endpoint");
+        }
+    }
+
+    public record ItemError(int index, String message) {}
+}
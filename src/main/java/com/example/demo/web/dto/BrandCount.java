@@ -0,0 +1,5 @@
+package com.example.demo.web.dto;
+
+// Aggregate row: number of cars per brand, selected with a JPQL constructor expression
+public record BrandCount(String brand, long cars) {
+}
@@ -0,0 +1,12 @@
+package com.example.demo.web.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+// One item of a bulk car import; ownerId is optional but must reference an existing owner
+public record CarRequest(
+    @NotBlank @Size(max = 255) String brand,
+    @NotBlank @Size(max = 255) String model,
+    int year,
+    Long ownerId
+) {}
@@ -0,0 +1,13 @@
+package com.example.demo.web.dto;
+
+import com.example.demo.domain.Car;
+
+// Read model for cars; repositories select straight into it with a JPQL constructor expression
+public record CarResponse(Long carId, String brand, String model, int year, Long ownerId, long version) {
+
+    public static CarResponse from(Car car) {
+        Long ownerId = car.getOwner() == null ? null : car.getOwner().getOwnerId();
+        return new CarResponse(car.getCarId(), car.getBrand(), car.getModel(), car.getYear(), ownerId,
+            car.getVersion());
+    }
+}
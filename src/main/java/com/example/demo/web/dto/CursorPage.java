@@ -0,0 +1,53 @@
+package com.example.demo.web.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset page: no offset and no total count, just the rows after a cursor and an opaque cursor
+ * for the next page ({@code null} on the last page).
+ */
+public record CursorPage<T>(List<T> content, int size, String nextCursor) {
+
+    public static final int MAX_SIZE = 1000;
+
+    /**
+     * Builds a page from up to {@code size + 1} rows ordered by key; the extra row only signals
+     * that another page exists.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, Long> key) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, size, null);
+        }
+        List<T> content = rows.subList(0, size);
+        return new CursorPage<>(content, size, encode(key.apply(content.get(size - 1))));
+    }
+
+    /**
+     * Returns the key after which to continue, or 0 to start from the beginning.
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public static int checkSize(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_SIZE);
+        }
+        return size;
+    }
+
+    private static String encode(Long key) {
+        byte[] bytes = key.toString().getBytes(StandardCharsets.US_ASCII);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
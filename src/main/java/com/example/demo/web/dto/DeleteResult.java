@@ -0,0 +1,5 @@
+package com.example.demo.web.dto;
+
+// Outcome of a bulk delete
+public record DeleteResult(int deleted) {
+}
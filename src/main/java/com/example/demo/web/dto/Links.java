@@ -0,0 +1,11 @@
+package com.example.demo.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record Links(String self, String collection) {
+
+    public static Links self(String self) {
+        return new Links(self, null);
+    }
+}
@@ -1,3 +1,3 @@
 package com.example.demo.web.dto;
 
-public record LoginResponse(String token, String type) {}
+public record LoginResponse(String token, String type, String refreshToken) {}
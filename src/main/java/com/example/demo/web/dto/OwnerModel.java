@@ -0,0 +1,6 @@
+package com.example.demo.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// HAL-style wrapper: {"owner": {...}, "_links": {...}}
+public record OwnerModel(OwnerResponse owner, @JsonProperty("_links") Links links) {}
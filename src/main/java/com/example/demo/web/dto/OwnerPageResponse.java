@@ -0,0 +1,39 @@
+package com.example.demo.web.dto;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// HAL-style page: {"_embedded": {"owners": [...]}, "_links": {...}, "page": {...}}
+public record OwnerPageResponse(
+        @JsonProperty("_embedded") Embedded embedded,
+        @JsonProperty("_links") Links links,
+        PageMetadata page
+) {
+    public record Embedded(List<OwnerModel> owners) {}
+
+    // Wraps each owner with its self link; links are relative to collectionLinks.self()
+    public static OwnerPageResponse of(Slice<OwnerResponse> owners, Links collectionLinks) {
+        List<OwnerModel> models = owners.getContent().stream()
+            .map(owner -> new OwnerModel(owner, Links.self(collectionLinks.self() + "/" + owner.ownerId())))
+            .toList();
+        return new OwnerPageResponse(new Embedded(models), collectionLinks, PageMetadata.of(owners));
+    }
+
+    // totals are omitted when the page was read as a count-free slice
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record PageMetadata(int size, Long totalElements, Integer totalPages, int number, boolean hasNext) {
+
+        public static PageMetadata of(Slice<?> slice) {
+            if (slice instanceof Page<?> page) {
+                return new PageMetadata(page.getSize(), page.getTotalElements(), page.getTotalPages(),
+                    page.getNumber(), page.hasNext());
+            }
+            return new PageMetadata(slice.getSize(), null, null, slice.getNumber(), slice.hasNext());
+        }
+    }
+}
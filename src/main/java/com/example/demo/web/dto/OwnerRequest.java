@@ -0,0 +1,10 @@
+package com.example.demo.web.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+// One item of a bulk owner import
+public record OwnerRequest(
+    @NotBlank @Size(max = 255) String firstName,
+    @NotBlank @Size(max = 255) String lastName
+) {}
@@ -0,0 +1,24 @@
+package com.example.demo.web.dto;
+
+import java.util.List;
+
+import com.example.demo.domain.Owner;
+
+// Read model for owners; the four-argument constructor is used by JPQL constructor expressions
+public record OwnerResponse(Long ownerId, String firstName, String lastName, long version, List<CarResponse> cars) {
+
+    public OwnerResponse(Long ownerId, String firstName, String lastName, long version) {
+        this(ownerId, firstName, lastName, version, List.of());
+    }
+
+    public OwnerResponse withCars(List<CarResponse> cars) {
+        return new OwnerResponse(ownerId, firstName, lastName, version, cars);
+    }
+
+    public static OwnerResponse from(Owner owner) {
+        List<CarResponse> cars = owner.getCars() == null ? List.of()
+            : owner.getCars().stream().map(CarResponse::from).toList();
+        return new OwnerResponse(owner.getOwnerId(), owner.getFirstName(), owner.getLastName(), owner.getVersion(),
+            cars);
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.demo.web.dto;
+
+// Aggregate row: how many owners own exactly that many cars (including owners without any)
+public record OwnershipCount(long cars, long owners) {
+}
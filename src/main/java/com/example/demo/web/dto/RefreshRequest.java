@@ -0,0 +1,5 @@
+package com.example.demo.web.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshRequest(@NotBlank String refreshToken) {}
@@ -0,0 +1,11 @@
+package com.example.demo.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One type-ahead match: {@code type} is {@code brand}, {@code model} or {@code owner}; {@code id}
+ * is only set for owners.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record Suggestion(String type, String text, Long id) {
+}
@@ -0,0 +1,5 @@
+package com.example.demo.web.dto;
+
+// Aggregate row: number of cars per model year, selected with a JPQL constructor expression
+public record YearCount(int year, long cars) {
+}
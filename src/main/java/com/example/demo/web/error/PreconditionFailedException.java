@@ -0,0 +1,6 @@
+package com.example.demo.web.error;
+
+// An If-Match precondition did not hold (the resource changed or is gone); mapped to 412
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) { super(message); }
+}
@@ -0,0 +1,13 @@
+package com.example.demo.web.error;
+
+// Work was shed because a bounded resource is saturated; mapped to 503 with a Retry-After header
+public class TooBusyException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public TooBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
@@ -0,0 +1,4 @@
+-- Optimistic-lock / ETag version of cars and owners (@Version on Car and Owner).
+-- Existing rows start at version 0, matching the entities' @ColumnDefault("0").
+ALTER TABLE cars ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE owners ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,11 @@
+-- Transactional outbox of car and owner changes (OutboxEvent), published by OutboxPublisher.
+-- The sequence steps by the entity's allocationSize so Hibernate's pooled ids stay unique.
+CREATE SEQUENCE IF NOT EXISTS outbox_events_seq START WITH 1 INCREMENT BY 50;
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT NOT NULL PRIMARY KEY,
+    aggregate_type VARCHAR(20) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    change_type VARCHAR(10) NOT NULL,
+    payload LONGTEXT NOT NULL,
+    created_at DATETIME(6) NOT NULL
+);
@@ -0,0 +1,11 @@
+-- Pooled id sequences of Car and Owner (allocationSize 50): a value v hands out the ids v - 49 .. v.
+-- Rows that predate the sequences or were inserted with explicit ids can sit above that, so each
+-- sequence is moved to max(id), making the next block start at max(id) + 1. SETVAL never moves a
+-- sequence backwards, so this is a no-op when the sequence is already ahead, including when other
+-- instances have taken blocks meanwhile. SETVAL only accepts a literal, hence EXECUTE IMMEDIATE.
+CREATE SEQUENCE IF NOT EXISTS cars_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS owners_seq START WITH 1 INCREMENT BY 50;
+SET @max_car_id = (SELECT COALESCE(MAX(id), 0) FROM cars);
+EXECUTE IMMEDIATE CONCAT('SELECT SETVAL(cars_seq, ', @max_car_id, ', true)');
+SET @max_owner_id = (SELECT COALESCE(MAX(id), 0) FROM owners);
+EXECUTE IMMEDIATE CONCAT('SELECT SETVAL(owners_seq, ', @max_owner_id, ', true)');
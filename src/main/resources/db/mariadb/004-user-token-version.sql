@@ -0,0 +1,3 @@
+-- Token version of users (User.tokenVersion), carried in stateless JWTs and bumped to revoke them.
+-- Existing users start at version 0, matching the entity's @ColumnDefault("0").
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version INT NOT NULL DEFAULT 0;
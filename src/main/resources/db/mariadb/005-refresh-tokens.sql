@@ -0,0 +1,11 @@
+-- Refresh tokens issued by /auth/login and rotated by /auth/refresh (RefreshToken). Lookups go by
+-- the unique token hash, revocation by username and the scheduled purge by expiry.
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    token_hash VARCHAR(43) NOT NULL,
+    username VARCHAR(100) NOT NULL,
+    expires_at DATETIME(6) NOT NULL
+);
+CREATE UNIQUE INDEX IF NOT EXISTS ux_refresh_tokens_hash ON refresh_tokens (token_hash);
+CREATE INDEX IF NOT EXISTS ix_refresh_tokens_username ON refresh_tokens (username);
+CREATE INDEX IF NOT EXISTS ix_refresh_tokens_expires_at ON refresh_tokens (expires_at);
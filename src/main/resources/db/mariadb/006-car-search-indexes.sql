@@ -0,0 +1,5 @@
+-- Indexes behind /api/cars/search (declared on Car): brand, brand+model and brand+model+year use the
+-- composite index, year ranges and owner filters their own.
+CREATE INDEX IF NOT EXISTS ix_cars_brand_model_year ON cars (brand, model, year);
+CREATE INDEX IF NOT EXISTS ix_cars_year ON cars (year);
+CREATE INDEX IF NOT EXISTS ix_cars_owner_id ON cars (owner_id);
@@ -0,0 +1,117 @@
+package com.example.demo.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.demo.web.dto.CarResponse;
+import com.example.demo.web.dto.Links;
+import com.example.demo.web.dto.OwnerPageResponse;
+import com.example.demo.web.dto.OwnerResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+/**
+ * JSON against the binary formats of {@code BinaryFormatsConfig} for a 1000-owner HAL page
+ * ({@code GET /api/owners?size=1000}, two cars per owner): write and parse time per page. The
+ * {@code size} benchmark reports the encoded page size as the secondary results {@code size:bytes}
+ * and {@code size:gzippedBytes}, so the sizes land in {@code target/jmh-result.json} next to the
+ * timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryFormatBenchmark {
+    private static final int PAGE_SIZE = 1000;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private OwnerPageResponse page;
+    private byte[] encoded;
+    private long gzippedLength;
+
+    // EVENTS counters are reported as is, but summed over the measured iterations
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class PayloadSize {
+        public long bytes;
+        public long gzippedBytes;
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        mapper = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+            case "smile" -> Jackson2ObjectMapperBuilder.json()
+                .factory(new SmileFactory().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES))
+                .build();
+            default -> throw new IllegalArgumentException(format);
+        };
+        List<OwnerResponse> owners = new ArrayList<>();
+        for (long i = 0; i < PAGE_SIZE; i++) {
+            owners.add(new OwnerResponse(i, "First" + i, "Last" + i, 4, List.of(
+                new CarResponse(2 * i, "Toyota", "Corolla", 2020, i, 3),
+                new CarResponse(2 * i + 1, "Honda", "Civic", 2021, i, 1))));
+        }
+        page = OwnerPageResponse.of(new PageImpl<>(owners, PageRequest.of(0, PAGE_SIZE), 100_000),
+            Links.self("/api/owners"));
+        encoded = mapper.writeValueAsBytes(page);
+        gzippedLength = gzip(encoded).length;
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    // One measured invocation, so the counters hold exactly one page's size; its time is not of interest
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public void size(PayloadSize size) {
+        size.bytes = encoded.length;
+        size.gzippedBytes = gzippedLength;
+    }
+
+    @Benchmark
+    public JsonNode read() throws IOException {
+        return mapper.readTree(encoded);
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+}
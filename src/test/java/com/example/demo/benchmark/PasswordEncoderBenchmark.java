@@ -0,0 +1,69 @@
+package com.example.demo.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.example.demo.security.BoundedPasswordEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Cost of one login ({@code matches}) and one registration ({@code encode}) per BCrypt strength,
+ * directly and through the {@link BoundedPasswordEncoder} pool. Each strength step doubles the
+ * time; pick {@code app.password-hashing.strength} and size the pool from these numbers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    @Param({"10", "12"})
+    public int strength;
+
+    private BCryptPasswordEncoder bcrypt;
+    private BoundedPasswordEncoder bounded;
+    private String hash;
+
+    @Setup
+    public void setup() {
+        bcrypt = new BCryptPasswordEncoder(strength);
+        bounded = new BoundedPasswordEncoder(bcrypt, 1, 1, 1, new SimpleMeterRegistry());
+        hash = bcrypt.encode("benchmark-password");
+    }
+
+    @TearDown
+    public void tearDown() {
+        bounded.destroy();
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return bcrypt.matches("benchmark-password", hash);
+    }
+
+    @Benchmark
+    public String encode() {
+        return bcrypt.encode("benchmark-password");
+    }
+
+    @Benchmark
+    public boolean boundedMatches() {
+        return bounded.matches("benchmark-password", hash);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.demo.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.demo.web.dto.CarResponse;
+import com.example.demo.web.dto.Links;
+import com.example.demo.web.dto.OwnerPageResponse;
+import com.example.demo.web.dto.OwnerResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Response building and JSON writing for list pages, the per-request CPU cost of
+ * {@code GET /api/cars} and {@code GET /api/owners} once the rows are loaded. Uses the same
+ * Jackson defaults as Spring Boot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    private static final Links COLLECTION_LINKS = Links.self("/api/owners");
+
+    @Param({"10", "100"})
+    public int pageSize;
+
+    private ObjectWriter writer;
+    private Slice<CarResponse> carPage;
+    private Slice<OwnerResponse> ownerPage;
+    private OwnerPageResponse ownerModel;
+
+    @Setup
+    public void setup() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer();
+        PageRequest pageable = PageRequest.of(0, pageSize);
+        List<CarResponse> cars = new ArrayList<>();
+        List<OwnerResponse> owners = new ArrayList<>();
+        for (long i = 0; i < pageSize; i++) {
+            CarResponse first = new CarResponse(2 * i, "Toyota", "Corolla", 2020, i, 3);
+            CarResponse second = new CarResponse(2 * i + 1, "Honda", "Civic", 2021, i, 1);
+            cars.add(first);
+            owners.add(new OwnerResponse(i, "First" + i, "Last" + i, 4, List.of(first, second)));
+        }
+        carPage = new PageImpl<>(cars, pageable, 10_000);
+        ownerPage = new PageImpl<>(owners, pageable, 10_000);
+        ownerModel = OwnerPageResponse.of(ownerPage, COLLECTION_LINKS);
+    }
+
+    @Benchmark
+    public byte[] writeCarPage() throws Exception {
+        return writer.writeValueAsBytes(carPage);
+    }
+
+    // HAL wrapper construction alone, as done by OwnerController#getOwners
+    @Benchmark
+    public OwnerPageResponse buildOwnerModel() {
+        return OwnerPageResponse.of(ownerPage, COLLECTION_LINKS);
+    }
+
+    @Benchmark
+    public byte[] writeOwnerModel() throws Exception {
+        return writer.writeValueAsBytes(ownerModel);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demo.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.example.demo.domain.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.UserService;
+
+/**
+ * {@code loadUserByUsername} without the database: the repository is a stub returning a fixed
+ * user, so this measures the role string parsing and {@link UserDetails} construction only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    @Param({"ROLE_USER", "ROLE_USER, ROLE_ADMIN, ROLE_AUDITOR, ROLE_SUPPORT"})
+    public String roles;
+
+    private UserService userService;
+
+    @Setup
+    public void setup() {
+        User user = new User(null, "benchmark-user", "{noop}secret", roles);
+        UserRepository repository = (UserRepository) Proxy.newProxyInstance(
+            UserRepository.class.getClassLoader(), new Class<?>[] {UserRepository.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("findByUsername")) {
+                    return Optional.of(user);
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+        userService = new UserService(repository, null);
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsername() {
+        return userService.loadUserByUsername("benchmark-user");
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.domain.Owner;
+import com.example.demo.repository.OwnerRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+class IdSequenceCheckTest {
+    @Autowired IdSequenceCheck idSequenceCheck;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired OwnerRepository ownerRepository;
+    @Autowired EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void failsWhenSequenceIsBehindExistingIds() {
+        long seeded = nextOwnerId() + 10_000;
+        jdbcTemplate.update("insert into owners (id, first_name, last_name, version) values (?, 'Seed', 'Row', 0)",
+            seeded);
+        try {
+            assertThatThrownBy(() -> idSequenceCheck.verify("owners_seq", "owners"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("holds id " + seeded);
+        } finally {
+            jdbcTemplate.update("delete from owners where id = ?", seeded);
+        }
+    }
+
+    @Test
+    void passesWhenSequenceIsAheadOfIds() {
+        Owner owner = ownerRepository.save(new Owner(null, "John", "Doe", List.of()));
+        try {
+            long before = nextOwnerId();
+            idSequenceCheck.verify("owners_seq", "owners");
+
+            // only the probe's block was used, the sequence was not moved
+            assertThat(nextOwnerId()).isEqualTo(before + 2L * IdSequenceCheck.ALLOCATION_SIZE);
+        } finally {
+            ownerRepository.delete(owner);
+        }
+    }
+
+    private long nextOwnerId() {
+        String sql = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()
+            .getSequenceSupport().getSequenceNextValString("owners_seq");
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.demo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+// Each H2 database stands in for a MariaDB server and knows its own name
+class ReplicaRoutingDataSourceTest {
+    final DataSource primary = database("primary");
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsRoundRobinOverReplicas() {
+        Routing routing = new Routing(List.of(database("replica-a"), database("replica-b")), Duration.ZERO);
+
+        assertThat(routing.read()).isEqualTo("replica-a");
+        assertThat(routing.read()).isEqualTo("replica-b");
+        assertThat(routing.read()).isEqualTo("replica-a");
+        assertThat(routing.write()).isEqualTo("primary");
+        assertThat(routing.jdbc.queryForObject("select name from server", String.class)).isEqualTo("primary");
+    }
+
+    @Test
+    void explicitCredentialsGoToThePrimary() throws Exception {
+        Routing routing = new Routing(List.of(database("replica-a")), Duration.ZERO);
+
+        try (Connection connection = routing.dataSource.getConnection("sa", "")) {
+            assertThat(new JdbcTemplate(new SingleConnectionDataSource(connection, true))
+                .queryForObject("select name from server", String.class)).isEqualTo("primary");
+        }
+    }
+
+    @Test
+    void clientReadsItsOwnWritesFromThePrimary() {
+        Routing routing = new Routing(List.of(database("replica-a")), Duration.ofMinutes(1));
+
+        loginAs("alice");
+        assertThat(routing.read()).isEqualTo("replica-a");
+        routing.write();
+        assertThat(routing.read()).isEqualTo("primary");
+        loginAs("bob");
+        assertThat(routing.read()).isEqualTo("replica-a");
+    }
+
+    @Test
+    void failingReplicaIsEjected() {
+        DataSource down = new DriverManagerDataSource("jdbc:h2:mem:replica-down;IFEXISTS=TRUE", "sa", "");
+        Routing routing = new Routing(List.of(down, database("replica-a")), Duration.ZERO);
+
+        assertThat(routing.read()).isEqualTo("replica-a");
+        assertThat(routing.read()).isEqualTo("replica-a");
+        assertThat(routing.dataSource.healthyReplicas()).isEqualTo(1);
+
+        Routing allDown = new Routing(List.of(down), Duration.ZERO);
+        assertThat(allDown.read()).isEqualTo("primary");
+    }
+
+    @Test
+    void exhaustedReplicaPoolIsSkippedWithoutEjection() throws Exception {
+        try (HikariDataSource busy = pool("jdbc:h2:mem:replica-busy;DB_CLOSE_DELAY=-1");
+             HikariDataSource unreachable = pool("jdbc:h2:mem:replica-gone;IFEXISTS=TRUE");
+             Connection held = busy.getConnection()) {
+            Routing routing = new Routing(List.of(busy, database("replica-a")), Duration.ZERO);
+            assertThat(routing.read()).isEqualTo("replica-a");
+            assertThat(routing.dataSource.healthyReplicas()).isEqualTo(2);
+
+            Routing withUnreachable = new Routing(List.of(unreachable, database("replica-a")), Duration.ZERO);
+            assertThat(withUnreachable.read()).isEqualTo("replica-a");
+            assertThat(withUnreachable.dataSource.healthyReplicas()).isEqualTo(1);
+        }
+    }
+
+    // One-connection pool that gives up after Hikari's minimum wait, like a replica pool under load
+    private static HikariDataSource pool(String url) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(url);
+        config.setUsername("sa");
+        config.setMaximumPoolSize(1);
+        config.setConnectionTimeout(250);
+        config.setInitializationFailTimeout(-1);
+        return new HikariDataSource(config);
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table if not exists server (name varchar(32))");
+        jdbc.update("delete from server");
+        jdbc.update("insert into server (name) values (?)", name);
+        return dataSource;
+    }
+
+    private static void loginAs(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+            UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()));
+    }
+
+    // Wired like ReadReplicaConfig: transactions run against the lazy proxy in front of the router
+    private class Routing {
+        final ReplicaRoutingDataSource dataSource;
+        final JdbcTemplate jdbc;
+        final TransactionTemplate readOnly;
+        final TransactionTemplate readWrite;
+
+        Routing(List<DataSource> replicas, Duration readYourWritesWindow) {
+            dataSource = new ReplicaRoutingDataSource(primary, replicas, Duration.ofMinutes(1), readYourWritesWindow);
+            DataSource proxy = new LazyConnectionDataSourceProxy(dataSource);
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(proxy);
+            jdbc = new JdbcTemplate(proxy);
+            readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readWrite = new TransactionTemplate(transactionManager);
+        }
+
+        String read() {
+            return readOnly.execute(status -> jdbc.queryForObject("select name from server", String.class));
+        }
+
+        String write() {
+            return readWrite.execute(status -> {
+                jdbc.update("update server set name = name");
+                return jdbc.queryForObject("select name from server", String.class);
+            });
+        }
+    }
+}
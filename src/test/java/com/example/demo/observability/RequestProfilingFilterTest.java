@@ -0,0 +1,72 @@
+package com.example.demo.observability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.demo.domain.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.security.JwtTokenUtil;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RequestProfilingFilterTest {
+    @Autowired MockMvc mockMvc;
+    @Autowired UserRepository userRepository;
+    @Autowired JwtTokenUtil jwtTokenUtil;
+    @Autowired MeterRegistry meterRegistry;
+
+    @Test
+    @org.springframework.transaction.annotation.Transactional
+    void recordsPhasesAndStatementsPerEndpoint() throws Exception {
+        userRepository.save(new User(null, "profiled", "{noop}pass", "ROLE_USER"));
+        String token = jwtTokenUtil.generateToken("profiled");
+        long before = phase("sql").map(Timer::count).orElse(0L);
+
+        mockMvc.perform(get("/api/cars?size=5").header("Authorization", "Bearer " + token))
+            .andExpect(status().isOk());
+
+        for (String phase : new String[] {"auth", "pool", "sql", "serialization", "other"}) {
+            assertThat(phase(phase)).as(phase).isPresent();
+        }
+        assertThat(phase("sql").get().count()).isEqualTo(before + 1);
+        assertThat(phase("serialization").get().totalTime(TimeUnit.NANOSECONDS)).isPositive();
+        DistributionSummary statements = meterRegistry.find("http.server.requests.sql")
+            .tags("method", "GET", "uri", "/api/cars").summary();
+        assertThat(statements).isNotNull();
+        assertThat(statements.totalAmount()).isPositive();
+    }
+
+    @Test
+    @org.springframework.transaction.annotation.Transactional
+    void recordsSerializationOfBinaryResponses() throws Exception {
+        userRepository.save(new User(null, "profiled", "{noop}pass", "ROLE_USER"));
+        String token = jwtTokenUtil.generateToken("profiled");
+
+        for (String mediaType : new String[] {"application/cbor", "application/x-jackson-smile"}) {
+            double before = phase("serialization").map(timer -> timer.totalTime(TimeUnit.NANOSECONDS)).orElse(0.0);
+            mockMvc.perform(get("/api/cars?size=5").header("Authorization", "Bearer " + token).accept(mediaType))
+                .andExpect(status().isOk());
+            assertThat(phase("serialization").get().totalTime(TimeUnit.NANOSECONDS)).as(mediaType)
+                .isGreaterThan(before);
+        }
+    }
+
+    private Optional<Timer> phase(String phase) {
+        return Optional.ofNullable(meterRegistry.find("http.server.requests.phase")
+            .tags("method", "GET", "uri", "/api/cars", "phase", phase).timer());
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.demo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.example.demo.web.error.TooBusyException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BoundedPasswordEncoderTest {
+
+    // Encodes by reversing, after waiting for the latch so tests can hold workers busy
+    private static PasswordEncoder blockingEncoder(CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new StringBuilder(rawPassword).reverse().toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+    }
+
+    @Test
+    void delegatesToWrappedEncoder() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CountDownLatch released = new CountDownLatch(0);
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blockingEncoder(released), 1, 1, 1, registry);
+
+        assertThat(encoder.encode("secret")).isEqualTo("terces");
+        assertThat(encoder.matches("secret", "terces")).isTrue();
+        assertThat(registry.get("password.hashing.duration").tag("operation", "matches").timer().count())
+            .isEqualTo(1);
+        encoder.destroy();
+    }
+
+    @Test
+    void rejectsWorkBeyondPoolAndQueue() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CountDownLatch release = new CountDownLatch(1);
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blockingEncoder(release), 1, 1, 7, registry);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        waitUntil(() -> registry.get("executor.active").gauge().value() == 1);
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        waitUntil(() -> registry.get("executor.queued").gauge().value() == 1);
+
+        assertThatThrownBy(() -> encoder.encode("c"))
+            .isInstanceOf(TooBusyException.class)
+            .extracting(e -> ((TooBusyException) e).getRetryAfterSeconds()).isEqualTo(7L);
+        assertThat(registry.get("password.hashing.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("a");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("b");
+        encoder.destroy();
+    }
+
+    private static void waitUntil(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
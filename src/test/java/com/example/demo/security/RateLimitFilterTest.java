@@ -0,0 +1,44 @@
+package com.example.demo.security;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.demo.domain.User;
+import com.example.demo.repository.UserRepository;
+
+@SpringBootTest(properties = {"app.rate-limit.api.burst=2", "app.rate-limit.api.permits-per-second=0.01"})
+@AutoConfigureMockMvc
+class RateLimitFilterTest {
+    @Autowired MockMvc mockMvc;
+    @Autowired UserRepository userRepository;
+    @Autowired JwtTokenUtil jwtTokenUtil;
+
+    @Test
+    @org.springframework.transaction.annotation.Transactional
+    void rejectsRequestsOverTheUsersLimit() throws Exception {
+        userRepository.save(new User(null, "limited", "{noop}pass", "ROLE_USER"));
+        userRepository.save(new User(null, "unlimited", "{noop}pass", "ROLE_USER"));
+        String token = jwtTokenUtil.generateToken("limited");
+
+        mockMvc.perform(get("/api/cars").header("Authorization", "Bearer " + token))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-RateLimit-Remaining", "1"));
+        mockMvc.perform(get("/api/cars").header("Authorization", "Bearer " + token))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/cars").header("Authorization", "Bearer " + token))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().exists("Retry-After"))
+            .andExpect(jsonPath("$.error").value("rate_limited"));
+
+        mockMvc.perform(get("/api/cars").header("Authorization", "Bearer " + jwtTokenUtil.generateToken("unlimited")))
+            .andExpect(status().isOk());
+    }
+}
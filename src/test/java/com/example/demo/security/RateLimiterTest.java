@@ -0,0 +1,58 @@
+package com.example.demo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void allowsBurstThenRefillsAtRate() {
+        RateLimiter limiter = new RateLimiter(2, 3, 100);
+        long now = 1_000 * SECOND;
+
+        assertThat(limiter.tryAcquire("a", now).remaining()).isEqualTo(2);
+        assertThat(limiter.tryAcquire("a", now).allowed()).isTrue();
+        assertThat(limiter.tryAcquire("a", now).remaining()).isZero();
+
+        RateLimiter.Decision rejected = limiter.tryAcquire("a", now);
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.retryAfterNanos()).isEqualTo(SECOND / 2);
+        assertThat(rejected.retryAfterSeconds()).isEqualTo(1);
+
+        // one permit every 500ms
+        assertThat(limiter.tryAcquire("a", now + SECOND / 2).allowed()).isTrue();
+        assertThat(limiter.tryAcquire("a", now + SECOND / 2).allowed()).isFalse();
+        // other keys have their own bucket
+        assertThat(limiter.tryAcquire("b", now).allowed()).isTrue();
+    }
+
+    @Test
+    void expiresBucketsOnceRefilled() {
+        AtomicLong time = new AtomicLong(1_000 * SECOND);
+        RateLimiter limiter = new RateLimiter(1, 2, 100, time::get);
+        limiter.tryAcquire("a", time.get());
+        limiter.tryAcquire("b", time.get());
+
+        // a bucket is full again after burst / rate = 2 seconds without requests
+        time.addAndGet(2 * SECOND - 1);
+        limiter.tryAcquire("b", time.get());
+        time.addAndGet(1);
+        assertThat(limiter.size()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsAtMostMaxKeysBuckets() {
+        RateLimiter limiter = new RateLimiter(1, 1, 100);
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(limiter.tryAcquire("key" + i).allowed()).isTrue();
+        }
+
+        assertThat(limiter.size()).isLessThanOrEqualTo(100);
+    }
+}
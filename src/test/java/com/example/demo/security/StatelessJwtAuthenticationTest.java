@@ -0,0 +1,151 @@
+package com.example.demo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.demo.domain.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest(properties = "jwt.stateless.enabled=true")
+@AutoConfigureMockMvc
+class StatelessJwtAuthenticationTest {
+    @Autowired MockMvc mockMvc;
+    @Autowired UserRepository userRepository;
+    @Autowired PasswordEncoder encoder;
+    @Autowired JwtTokenUtil jwtTokenUtil;
+    @Autowired UserService userService;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired ApplicationContext applicationContext;
+
+    @Test
+    void selfContainedTokenAuthenticatesExistingUser() throws Exception {
+        User user = userRepository.save(new User(null, "stateless_" + System.nanoTime(), "{noop}pass", "ROLE_USER"));
+        try {
+            mockMvc.perform(get("/api/cars")
+                    .header("Authorization", "Bearer " + tokenFor(user)))
+                    .andExpect(status().isOk());
+        } finally {
+            userRepository.delete(user);
+        }
+    }
+
+    @Test
+    void tokenOfUnknownUserIsRejected() throws Exception {
+        String token = jwtTokenUtil.generateToken("ghost_" + System.nanoTime(), 1L, List.of("ROLE_USER"), 0);
+        mockMvc.perform(get("/api/cars")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void revokedTokenVersionIsRejected() throws Exception {
+        User user = userRepository.save(new User(null, "revoked_" + System.nanoTime(), "{noop}pass", "ROLE_USER"));
+        try {
+            String token = tokenFor(user);
+            userService.revokeTokens(user.getUsername());
+            mockMvc.perform(get("/api/cars")
+                    .header("Authorization", "Bearer " + token))
+                    .andExpect(status().isUnauthorized());
+        } finally {
+            userRepository.deleteById(user.getId());
+        }
+    }
+
+    @Test
+    void rolledBackChangeRevokesNothing() throws Exception {
+        User user = userRepository.save(new User(null, "rollback_" + System.nanoTime(), "{noop}pass", "ROLE_USER"));
+        try {
+            String token = tokenFor(user);
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                userService.revokeTokens(user.getUsername());
+                userRepository.flush();
+                status.setRollbackOnly();
+            });
+            mockMvc.perform(get("/api/cars")
+                    .header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk());
+        } finally {
+            userRepository.delete(user);
+        }
+    }
+
+    // Another instance, or this one after a restart, only knows what the database says
+    @Test
+    void revocationIsReadFromTheDatabase() {
+        User user = userRepository.save(new User(null, "elsewhere_" + System.nanoTime(), "{noop}pass", "ROLE_USER"));
+        try {
+            VerifiedToken token = jwtTokenUtil.verify(tokenFor(user));
+            jdbcTemplate.update("update users set token_version = token_version + 1 where id = ?", user.getId());
+
+            TokenRevocationRegistry fresh = new TokenRevocationRegistry(
+                applicationContext.getBeanProvider(UserRepository.class), 30_000, 100);
+            assertThat(fresh.isRevoked(token)).isTrue();
+        } finally {
+            userRepository.deleteById(user.getId());
+        }
+    }
+
+    @Test
+    void deletedUserTokensAreRejectedButNameCanBeReused() throws Exception {
+        String username = "deleted_" + System.nanoTime();
+        User user = userRepository.save(new User(null, username, encoder.encode("pass"), "ROLE_USER"));
+        String oldToken = tokenFor(user);
+        userRepository.delete(user);
+        mockMvc.perform(get("/api/cars")
+                .header("Authorization", "Bearer " + oldToken))
+                .andExpect(status().isUnauthorized());
+
+        User recreated = userRepository.save(new User(null, username, encoder.encode("pass"), "ROLE_USER"));
+        try {
+            mockMvc.perform(get("/api/cars")
+                    .header("Authorization", "Bearer " + tokenFor(recreated)))
+                    .andExpect(status().isOk());
+            // same name and version, but issued to the earlier user
+            mockMvc.perform(get("/api/cars")
+                    .header("Authorization", "Bearer " + oldToken))
+                    .andExpect(status().isUnauthorized());
+        } finally {
+            userRepository.delete(recreated);
+        }
+    }
+
+    @Test
+    @org.springframework.transaction.annotation.Transactional
+    void loginIssuesTokenCarryingRoles() throws Exception {
+        String username = "stateless_" + System.currentTimeMillis();
+        userRepository.save(new User(null, username, encoder.encode("pass"), "ROLE_USER,ROLE_ADMIN"));
+        String body = mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + username + "\",\"password\":\"pass\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String token = new ObjectMapper().readTree(body).get("token").asText();
+
+        VerifiedToken verified = jwtTokenUtil.verify(token);
+        assertThat(verified.selfContained()).isTrue();
+        assertThat(verified.roles()).containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+    }
+
+    private String tokenFor(User user) {
+        return jwtTokenUtil.generateToken(user.getUsername(), user.getId(), List.of("ROLE_USER"), user.getTokenVersion());
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+class TokenAuthenticationCacheTest {
+
+    private static UserDetails user(String username) {
+        return User.withUsername(username).password("x").authorities("ROLE_USER").build();
+    }
+
+    @Test
+    void returnsCachedUserUntilTokenExpiry() {
+        TokenAuthenticationCache cache = new TokenAuthenticationCache(10, 60000);
+        cache.put("token-a", user("alice"), System.currentTimeMillis() + 60000);
+        cache.put("token-b", user("bob"), System.currentTimeMillis() - 1);
+
+        assertThat(cache.get("token-a").getUsername()).isEqualTo("alice");
+        assertThat(cache.get("token-b")).isNull();
+    }
+
+    @Test
+    void invalidateUserDropsAllOfTheirTokens() {
+        TokenAuthenticationCache cache = new TokenAuthenticationCache(10, 60000);
+        long exp = System.currentTimeMillis() + 60000;
+        cache.put("token-a1", user("alice"), exp);
+        cache.put("token-a2", user("alice"), exp);
+        cache.put("token-b", user("bob"), exp);
+
+        cache.invalidateUser("alice");
+
+        assertThat(cache.get("token-a1")).isNull();
+        assertThat(cache.get("token-a2")).isNull();
+        assertThat(cache.get("token-b")).isNotNull();
+    }
+
+    @Test
+    void doesNotGrowBeyondMaxSize() {
+        TokenAuthenticationCache cache = new TokenAuthenticationCache(2, 60000);
+        long exp = System.currentTimeMillis() + 60000;
+        cache.put("t1", user("a"), exp);
+        cache.put("t2", user("b"), exp);
+        cache.put("t3", user("c"), exp);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("t3")).isNull();
+    }
+}
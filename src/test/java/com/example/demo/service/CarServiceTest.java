@@ -0,0 +1,54 @@
+package com.example.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.demo.domain.Car;
+import com.example.demo.domain.Owner;
+import com.example.demo.repository.CarRepository;
+import com.example.demo.repository.OwnerRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class CarServiceTest {
+    @Autowired CarService carService;
+    @Autowired OwnerRepository ownerRepository;
+    @Autowired CarRepository carRepository;
+    @Autowired EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setup() {
+        carRepository.deleteAll();
+        ownerRepository.deleteAll();
+    }
+
+    @Test
+    void deleteCarsReadsProjectionsInBoundedChunks() {
+        Owner fleet = ownerRepository.save(new Owner(null, "Fleet", "Owner", List.of()));
+        List<Car> cars = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            cars.add(new Car(null, i % 2 == 0 ? "Ford" : "Opel", "Transit", 2015 + i % 10, fleet));
+        }
+        carRepository.saveAll(cars);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        int deleted = carService.deleteCars("Ford", null, 2016, null, null);
+
+        assertThat(deleted).isEqualTo(1200);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        // per chunk of 1000: matching projections + owner version bump + bulk delete
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(6);
+        assertThat(carRepository.count()).isEqualTo(1800);
+    }
+}
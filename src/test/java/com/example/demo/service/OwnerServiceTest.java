@@ -0,0 +1,72 @@
+package com.example.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import com.example.demo.domain.Car;
+import com.example.demo.domain.Owner;
+import com.example.demo.repository.CarRepository;
+import com.example.demo.repository.OwnerRepository;
+import com.example.demo.web.dto.OwnerResponse;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OwnerServiceTest {
+    @Autowired OwnerService ownerService;
+    @Autowired OwnerRepository ownerRepository;
+    @Autowired CarRepository carRepository;
+    @Autowired EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setup() {
+        carRepository.deleteAll();
+        ownerRepository.deleteAll();
+        for (int i = 0; i < 12; i++) {
+            Owner owner = ownerRepository.save(new Owner(null, "First" + i, "Last" + i, List.of()));
+            carRepository.save(new Car(null, "Toyota", "Corolla", 2020, owner));
+            carRepository.save(new Car(null, "Honda", "Civic", 2021, owner));
+        }
+    }
+
+    @Test
+    void ownersPageWithCarsUsesConstantNumberOfStatements() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<OwnerResponse> page = ownerService.getOwners(PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).hasSize(10);
+        assertThat(page.getContent()).allSatisfy(owner -> assertThat(owner.cars()).hasSize(2));
+        assertThat(page.getTotalElements()).isEqualTo(12);
+        // owner page + count + cars of those owners, regardless of page size
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void deleteOwnerUsesConstantNumberOfStatements() {
+        Owner fleet = ownerRepository.save(new Owner(null, "Fleet", "Owner", List.of()));
+        for (int i = 0; i < 200; i++) {
+            carRepository.save(new Car(null, "Ford", "Transit", 2015 + i % 10, fleet));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ownerService.deleteOwner(fleet.getOwnerId());
+
+        // owner lookup + its cars + bulk delete of the cars + delete of the owner
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+        assertThat(ownerRepository.existsById(fleet.getOwnerId())).isFalse();
+        assertThat(carRepository.count()).isEqualTo(24);
+    }
+}
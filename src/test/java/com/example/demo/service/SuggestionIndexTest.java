@@ -0,0 +1,80 @@
+package com.example.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.domain.Car;
+import com.example.demo.domain.Owner;
+import com.example.demo.repository.CarRepository;
+import com.example.demo.repository.OwnerRepository;
+import com.example.demo.service.event.CarChangedEvent;
+import com.example.demo.service.event.OwnerChangedEvent;
+import com.example.demo.web.dto.CarResponse;
+import com.example.demo.web.dto.OwnerResponse;
+import com.example.demo.web.dto.Suggestion;
+
+@SpringBootTest
+@Transactional
+class SuggestionIndexTest {
+    @Autowired SuggestionIndex suggestionIndex;
+    @Autowired OwnerRepository ownerRepository;
+    @Autowired CarRepository carRepository;
+
+    Owner zoe;
+
+    @BeforeEach
+    void setup() {
+        carRepository.deleteAll();
+        ownerRepository.deleteAll();
+        zoe = ownerRepository.save(new Owner(null, "Zoë", "Ångström", List.of()));
+        Owner zack = ownerRepository.save(new Owner(null, "Zack", "Miller", List.of()));
+        carRepository.save(new Car(null, "Zastava", "Yugo", 1988, zoe));
+        carRepository.save(new Car(null, "Zastava", "Koral", 1990, zack));
+        carRepository.save(new Car(null, "Zeekr", "001", 2023, zack));
+        suggestionIndex.rebuild();
+    }
+
+    @Test
+    void matchesNormalizedPrefixesInOrder() {
+        assertThat(suggestionIndex.suggest("za", SuggestionIndex.BRAND, 10))
+            .containsExactly(new Suggestion("brand", "Zastava", null));
+        assertThat(suggestionIndex.suggest("  ZO", SuggestionIndex.OWNER, 10))
+            .containsExactly(new Suggestion("owner", "Zoë Ångström", zoe.getOwnerId()));
+        assertThat(suggestionIndex.suggest("angstrom z", SuggestionIndex.OWNER, 10))
+            .extracting(Suggestion::id).containsExactly(zoe.getOwnerId());
+        assertThat(suggestionIndex.suggest("z", null, 10)).extracting(Suggestion::text)
+            .containsExactly("Zastava", "Zeekr", "Zack Miller", "Zoë Ångström");
+        assertThat(suggestionIndex.suggest("z", null, 3)).hasSize(3);
+        assertThat(suggestionIndex.suggest(" ", null, 10)).isEmpty();
+        assertThatThrownBy(() -> suggestionIndex.suggest("z", "color", 10))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void followsChangeEvents() {
+        CarResponse yugo = new CarResponse(1L, "Zastava", "Yugo", 1988, zoe.getOwnerId(), 0);
+        CarResponse koral = new CarResponse(2L, "Zastava", "Koral", 1990, null, 0);
+        suggestionIndex.onCarChanged(new CarChangedEvent(yugo, null));
+        assertThat(suggestionIndex.suggest("zas", SuggestionIndex.BRAND, 10)).hasSize(1);
+        assertThat(suggestionIndex.suggest("yu", SuggestionIndex.MODEL, 10)).isEmpty();
+        suggestionIndex.onCarChanged(new CarChangedEvent(koral, null));
+        assertThat(suggestionIndex.suggest("zas", SuggestionIndex.BRAND, 10)).isEmpty();
+
+        OwnerResponse before = new OwnerResponse(zoe.getOwnerId(), "Zoë", "Ångström", 0);
+        OwnerResponse after = new OwnerResponse(zoe.getOwnerId(), "Zoe", "Adams", 1);
+        suggestionIndex.onOwnerChanged(new OwnerChangedEvent(before, after));
+        assertThat(suggestionIndex.suggest("ang", SuggestionIndex.OWNER, 10)).isEmpty();
+        assertThat(suggestionIndex.suggest("adams", SuggestionIndex.OWNER, 10))
+            .extracting(Suggestion::text).containsExactly("Zoe Adams");
+        suggestionIndex.onOwnerChanged(new OwnerChangedEvent(after, null));
+        assertThat(suggestionIndex.suggest("zo", SuggestionIndex.OWNER, 10)).isEmpty();
+    }
+}
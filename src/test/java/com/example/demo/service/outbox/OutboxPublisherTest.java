@@ -0,0 +1,92 @@
+package com.example.demo.service.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.groups.Tuple.tuple;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import com.example.demo.config.OutboxConfig;
+import com.example.demo.domain.Car;
+import com.example.demo.domain.Owner;
+import com.example.demo.repository.OutboxEventRepository;
+import com.example.demo.service.CarService;
+import com.example.demo.service.OwnerService;
+import com.example.demo.web.dto.CarResponse;
+import com.example.demo.web.dto.OwnerRequest;
+import com.example.demo.web.dto.OwnerResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// The scheduled run is pushed out of the way; the test drives the publisher itself
+@SpringBootTest(properties = {"app.outbox.enabled=true", "app.outbox.sink=queue",
+    "app.outbox.flush-interval=3600000"})
+class OutboxPublisherTest {
+    @Autowired OwnerService ownerService;
+    @Autowired CarService carService;
+    @Autowired OutboxEventRepository outboxEventRepository;
+    @Autowired OutboxPublisher publisher;
+    @Autowired QueueOutboxSink sink;
+
+    @Test
+    @org.springframework.transaction.annotation.Transactional
+    void writesChangesInTheWritingTransactionAndPublishesThemInOrder() {
+        outboxEventRepository.deleteAllInBatch();
+        sink.drainTo(new ArrayList<>(), Integer.MAX_VALUE);
+
+        OwnerResponse owner = ownerService.saveOwner(new Owner(null, "Outbox", "Owner", List.of()));
+        Owner reference = new Owner();
+        reference.setOwnerId(owner.ownerId());
+        CarResponse car = carService.saveCar(new Car(null, "Volvo", "XC60", 2022, reference));
+        carService.deleteCar(car.carId());
+        assertThat(outboxEventRepository.count()).isEqualTo(3);
+
+        assertThat(publisher.publishBatch()).isEqualTo(3);
+
+        List<ChangeRecord> records = new ArrayList<>();
+        sink.drainTo(records, 10);
+        assertThat(records).extracting(ChangeRecord::aggregate, ChangeRecord::aggregateId, ChangeRecord::type)
+            .containsExactly(
+                tuple("owner", owner.ownerId(), "CREATED"),
+                tuple("car", car.carId(), "CREATED"),
+                tuple("car", car.carId(), "DELETED"));
+        assertThat(records.get(1).payload()).contains("\"brand\":\"Volvo\"");
+        assertThat(outboxEventRepository.count()).isZero();
+        assertThat(publisher.publishBatch()).isZero();
+
+        // bulk imports clear the persistence context per chunk; their outbox rows must survive that
+        ownerService.importOwners(List.of(new OwnerRequest("Ann", "Lee"), new OwnerRequest("Bob", "Ray")).iterator());
+        assertThat(outboxEventRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void fullQueueRejectsTheWholeBatch() {
+        QueueOutboxSink small = new QueueOutboxSink(2);
+        ChangeRecord record = new ChangeRecord(1, "car", 1, "CREATED", Instant.now(), "{}");
+
+        assertThatThrownBy(() -> small.publish(List.of(record, record, record)))
+            .isInstanceOf(IllegalStateException.class);
+        assertThat(small.size()).isZero();
+    }
+
+    @Test
+    void defaultsToTheFileSink() {
+        new ApplicationContextRunner()
+            .withUserConfiguration(OutboxConfig.class)
+            .withBean(ObjectMapper.class)
+            .withBean(SimpleMeterRegistry.class)
+            .withPropertyValues("app.outbox.enabled=true")
+            .run(context -> {
+                assertThat(context).hasSingleBean(OutboxSink.class);
+                assertThat(context.getBean(OutboxSink.class)).isInstanceOf(FileOutboxSink.class);
+            });
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.demo.web;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.demo.domain.Car;
+import com.example.demo.domain.Owner;
+import com.example.demo.repository.CarRepository;
+import com.example.demo.repository.OwnerRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AdminControllerTest {
+    @Autowired MockMvc mockMvc;
+    @Autowired CarRepository carRepository;
+    @Autowired OwnerRepository ownerRepository;
+
+    @Autowired com.example.demo.repository.UserRepository userRepository;
+    @Autowired com.example.demo.security.JwtTokenUtil jwtTokenUtil;
+
+    String adminToken;
+    String userToken;
+
+    @BeforeEach
+    @org.springframework.transaction.annotation.Transactional
+    void setup() {
+        carRepository.deleteAll();
+        ownerRepository.deleteAll();
+        userRepository.deleteByUsername("adminuser");
+        userRepository.deleteByUsername("plainuser");
+        userRepository.save(new com.example.demo.domain.User(null, "adminuser", "{noop}adminpass", "ROLE_USER,ROLE_ADMIN"));
+        userRepository.save(new com.example.demo.domain.User(null, "plainuser", "{noop}plainpass", "ROLE_USER"));
+        adminToken = jwtTokenUtil.generateToken("adminuser");
+        userToken = jwtTokenUtil.generateToken("plainuser");
+        Owner owner = ownerRepository.save(new Owner(null, "John", "Doe", List.of()));
+        carRepository.save(new Car(null, "Toyota", "Corolla", 2010, owner));
+        carRepository.save(new Car(null, "Toyota", "Corolla", 2020, owner));
+        carRepository.save(new Car(null, "Honda", "Civic", 2012, null));
+    }
+
+    @Test
+    @org.springframework.transaction.annotation.Transactional
+    void deleteCarsByFilter() throws Exception {
+    mockMvc.perform(delete("/api/admin/cars?brand=Toyota&yearTo=2015")
+        .header("Authorization", "Bearer " + adminToken))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.deleted").value(1));
+    org.junit.jupiter.api.Assertions.assertEquals(2, carRepository.count());
+    }
+
+    @Test
+    @org.springframework.transaction.annotation.Transactional
+    void deleteCarsByFilterRequiresAdminAndFilter() throws Exception {
+    mockMvc.perform(delete("/api/admin/cars?brand=Toyota")
+        .header("Authorization", "Bearer " + userToken))
+        .andExpect(status().isForbidden());
+    mockMvc.perform(delete("/api/admin/cars")
+        .header("Authorization", "Bearer " + adminToken))
+        .andExpect(status().isBadRequest());
+    org.junit.jupiter.api.Assertions.assertEquals(3, carRepository.count());
+    }
+}
@@ -1,19 +1,27 @@
 package com.example.demo.web;
 
+import static org.mockito.Mockito.doThrow;
+
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 import org.springframework.test.web.servlet.MockMvc;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.jayway.jsonpath.JsonPath;
+
 import com.example.demo.domain.User;
 import com.example.demo.repository.UserRepository;
 import com.example.demo.security.JwtTokenUtil;
+import com.example.demo.service.UserService;
+import com.example.demo.web.error.TooBusyException;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -22,6 +30,8 @@ class AuthControllerTest {
     @Autowired UserRepository userRepository;
     @Autowired PasswordEncoder encoder;
     @Autowired JwtTokenUtil jwtTokenUtil;
+    // The authentication provider's user lookup; stubbed to fail like a saturated hashing pool
+    @MockitoSpyBean UserService userService;
 
     @Test
     @org.springframework.transaction.annotation.Transactional
@@ -35,6 +45,36 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.token").exists());
     }
 
+    @Test
+    @org.springframework.transaction.annotation.Transactional
+    void refreshRotatesToken() throws Exception {
+        String username = "refreshuser_" + System.currentTimeMillis();
+        userRepository.save(new User(null, username, encoder.encode("testpass"), "ROLE_USER"));
+        String login = mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + username + "\",\"password\":\"testpass\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String refreshToken = JsonPath.read(login, "$.refreshToken");
+
+        String refreshed = mockMvc.perform(post("/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"" + refreshToken + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").exists())
+                .andReturn().getResponse().getContentAsString();
+        org.junit.jupiter.api.Assertions.assertEquals(username,
+                jwtTokenUtil.extractUsername(JsonPath.read(refreshed, "$.token")));
+        org.junit.jupiter.api.Assertions.assertNotEquals(refreshToken, JsonPath.read(refreshed, "$.refreshToken"));
+
+        // single use: the rotated-out token is rejected
+        mockMvc.perform(post("/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"" + refreshToken + "\"}"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.error").value("invalid_refresh_token"));
+    }
+
     @Test
     void loginFail() throws Exception {
         mockMvc.perform(post("/auth/login")
@@ -44,6 +84,18 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.error").value("invalid_credentials"));
     }
 
+    @Test
+    void loginWhileHashingIsSaturatedIsServiceUnavailable() throws Exception {
+        doThrow(new TooBusyException("Authentication is busy, retry shortly", 3))
+                .when(userService).loadUserByUsername("busyuser");
+        mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"busyuser\",\"password\":\"pass\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "3"))
+                .andExpect(jsonPath("$.error").value("too_busy"));
+    }
+
     @Test
     @org.springframework.transaction.annotation.Transactional
     void registerSuccess() throws Exception {
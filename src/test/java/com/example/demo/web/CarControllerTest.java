@@ -1,23 +1,41 @@
 package com.example.demo.web;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import java.util.List;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.transaction.TestTransaction;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.jayway.jsonpath.JsonPath;
+
 import com.example.demo.domain.Car;
 import com.example.demo.domain.Owner;
 import com.example.demo.repository.CarRepository;
 import com.example.demo.repository.OwnerRepository;
+import com.example.demo.service.ApproximateRowCounts;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -25,11 +43,15 @@ class CarControllerTest {
     @Autowired MockMvc mockMvc;
     @Autowired CarRepository carRepository;
     @Autowired OwnerRepository ownerRepository;
+    @Autowired ApproximateRowCounts rowCounts;
 
     @Autowired com.example.demo.repository.UserRepository userRepository;
     @Autowired com.example.demo.security.JwtTokenUtil jwtTokenUtil;
 
+    @Autowired PlatformTransactionManager transactionManager;
+
     String jwtToken;
+    boolean fixtureCommitted;
 
     @BeforeEach
     @org.springframework.transaction.annotation.Transactional
@@ -43,6 +65,18 @@ class CarControllerTest {
         carRepository.save(new Car(null, "Toyota", "Corolla", 2020, owner));
     }
 
+    // see commitFixture
+    @AfterEach
+    void cleanUpCommittedFixture() {
+        if (fixtureCommitted) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                carRepository.deleteAll();
+                ownerRepository.deleteAll();
+                userRepository.deleteByUsername("caruser");
+            });
+        }
+    }
+
     @Test
     @org.springframework.transaction.annotation.Transactional
     void getCarsPaged() throws Exception {
@@ -53,6 +87,36 @@ class CarControllerTest {
         .andExpect(jsonPath("$.content[0].brand").value("Toyota"));
     }
 
+    @Test
+    @org.springframework.transaction.annotation.Transactional
+    void getCarsWithoutTotal() throws Exception {
+    mockMvc.perform(get("/api/cars?page=0&size=5&total=none")
+        .header("Authorization", "Bearer " + jwtToken))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content[0].brand").value("Toyota"))
+        .andExpect(jsonPath("$.last").value(true))
+        .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    @org.springframework.transaction.annotation.Transactional
+    void getCarsWithStaleEstimateKeepsNextPage() throws Exception {
+    rowCounts.refresh();
+    Owner owner = ownerRepository.findAll().get(0);
+    carRepository.save(new Car(null, "Honda", "Civic", 2021, owner));
+    carRepository.save(new Car(null, "Ford", "Focus", 2022, owner));
+    mockMvc.perform(get("/api/cars?page=0&size=2&total=estimate")
+        .header("Authorization", "Bearer " + jwtToken))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.last").value(false))
+        .andExpect(jsonPath("$.totalElements").value(3));
+    mockMvc.perform(get("/api/cars?page=1&size=2&total=estimate")
+        .header("Authorization", "Bearer " + jwtToken))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content.length()").value(1))
+        .andExpect(jsonPath("$.last").value(true));
+    }
+
     @Test
     @org.springframework.transaction.annotation.Transactional
     void getCarById() throws Exception {
@@ -63,6 +127,72 @@ class CarControllerTest {
         .andExpect(jsonPath("$.brand").value("Toyota"));
     }
 
+    @Test
+    @org.springframework.transaction.annotation.Transactional
+    void getCarsInBinaryFormats() throws Exception {
+    byte[] cbor = mockMvc.perform(get("/api/cars?page=0&size=5")
+        .header("Authorization", "Bearer " + jwtToken)
+        .accept("application/cbor"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("application/cbor"))
+        .andReturn().getResponse().getContentAsByteArray();
+    assertThat(new CBORMapper().readTree(cbor).at("/content/0/brand").asText()).isEqualTo("Toyota");
+    byte[] smile = mockMvc.perform(get("/api/owners?page=0&size=5")
+        .header("Authorization", "Bearer " + jwtToken)
+        .accept("application/x-jackson-smile"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("application/x-jackson-smile"))
+        .andReturn().getResponse().getContentAsByteArray();
+    assertThat(new SmileMapper().readTree(smile).at("/_embedded/owners/0/owner/lastName").asText()).isEqualTo("Doe");
+    }
+
+    @Test
+    @org.springframework.transaction.annotation.Transactional
+    void conditionalRequestsUseVersionETags() throws Exception {
+    Car car = carRepository.findAll().get(0);
+    String path = "/api/cars/" + car.getCarId();
+    String etag = "\"" + car.getCarId() + "-0\"";
+    mockMvc.perform(get(path)
+        .header("Authorization", "Bearer " + jwtToken))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", etag))
+        .andExpect(jsonPath("$.version").value(0));
+    mockMvc.perform(get(path)
+        .header("Authorization", "Bearer " + jwtToken)
+        .header("If-None-Match", etag))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+    String body = "{\"brand\":\"Toyota\",\"model\":\"Camry\",\"year\":2022}";
+    String updated = "\"" + car.getCarId() + "-1\"";
+    mockMvc.perform(put(path)
+        .header("Authorization", "Bearer " + jwtToken)
+        .header("If-Match", etag)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(body))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", updated))
+        .andExpect(jsonPath("$.model").value("Camry"));
+    mockMvc.perform(put(path)
+        .header("Authorization", "Bearer " + jwtToken)
+        .header("If-Match", etag)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(body))
+        .andExpect(status().isPreconditionFailed());
+    mockMvc.perform(get(path)
+        .header("Authorization", "Bearer " + jwtToken)
+        .header("If-None-Match", etag))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", updated));
+    mockMvc.perform(delete(path)
+        .header("Authorization", "Bearer " + jwtToken)
+        .header("If-Match", etag))
+        .andExpect(status().isPreconditionFailed());
+    mockMvc.perform(delete(path)
+        .header("Authorization", "Bearer " + jwtToken)
+        .header("If-Match", updated))
+        .andExpect(status().isOk());
+    }
+
     @Test
     @org.springframework.transaction.annotation.Transactional
     void createCar() throws Exception {
@@ -80,4 +210,177 @@ class CarControllerTest {
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.brand").value("Honda"));
     }
+
+    @Test
+    @org.springframework.transaction.annotation.Transactional
+    void getCarsByCursor() throws Exception {
+    Owner owner = ownerRepository.findAll().get(0);
+    carRepository.save(new Car(null, "Honda", "Civic", 2021, owner));
+    carRepository.save(new Car(null, "Ford", "Focus", 2019, owner));
+    String body = mockMvc.perform(get("/api/cars?after=&size=2")
+        .header("Authorization", "Bearer " + jwtToken))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content.length()").value(2))
+        .andExpect(jsonPath("$.content[0].brand").value("Toyota"))
+        .andExpect(jsonPath("$.nextCursor").isString())
+        .andReturn().getResponse().getContentAsString();
+    String next = JsonPath.read(body, "$.nextCursor");
+    mockMvc.perform(get("/api/cars?after=" + next + "&size=2")
+        .header("Authorization", "Bearer " + jwtToken))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content.length()").value(1))
+        .andExpect(jsonPath("$.content[0].brand").value("Ford"))
+        .andExpect(jsonPath("$.nextCursor").value(org.hamcrest.Matchers.nullValue()));
+    }
+
+    @Test
+    @org.springframework.transaction.annotation.Transactional
+    void getCarsByInvalidCursor() throws Exception {
+    mockMvc.perform(get("/api/cars?after=not-a-cursor")
+        .header("Authorization", "Bearer " + jwtToken))
+        .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @org.springframework.transaction.annotation.Transactional
+    void searchCars() throws Exception {
+    Owner owner = ownerRepository.findAll().get(0);
+    carRepository.save(new Car(null, "Toyota", "Yaris", 2015, owner));
+    carRepository.save(new Car(null, "Toyota", "Camry", 2022, owner));
+    carRepository.save(new Car(null, "Honda", "Civic", 2021, owner));
+    mockMvc.perform(get("/api/cars/search?brand=Toyota&yearFrom=2016&sort=year,desc")
+        .header("Authorization", "Bearer " + jwtToken))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.totalElements").value(2))
+        .andExpect(jsonPath("$.content[0].model").value("Camry"))
+        .andExpect(jsonPath("$.content[1].model").value("Corolla"));
+    mockMvc.perform(get("/api/cars/search?sort=owner.firstName")
+        .header("Authorization", "Bearer " + jwtToken))
+        .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @org.springframework.transaction.annotation.Transactional
+    void createCarsInBatch() throws Exception {
+    Owner owner = ownerRepository.findAll().get(0);
+    mockMvc.perform(post("/api/cars/batch")
+        .header("Authorization", "Bearer " + jwtToken)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("[" +
+            "{\"brand\":\"Honda\",\"model\":\"Civic\",\"year\":2021,\"ownerId\":" + owner.getOwnerId() + "}," +
+            "{\"brand\":\"\",\"model\":\"Focus\",\"year\":2019}," +
+            "{\"brand\":\"Ford\",\"model\":\"Focus\",\"year\":2019,\"ownerId\":-1}," +
+            "{\"brand\":\"Mazda\",\"model\":\"3\",\"year\":2018}" +
+            "]"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.received").value(4))
+        .andExpect(jsonPath("$.createdIds.length()").value(2))
+        .andExpect(jsonPath("$.errors[0].index").value(1))
+        .andExpect(jsonPath("$.errors[1].index").value(2))
+        .andExpect(jsonPath("$.errors[1].message").value("Owner -1 not found"));
+    org.junit.jupiter.api.Assertions.assertEquals(3, carRepository.count());
+    }
+
+    @Test
+    @org.springframework.transaction.annotation.Transactional
+    void importCarsFromNdjson() throws Exception {
+    mockMvc.perform(post("/api/cars/import")
+        .header("Authorization", "Bearer " + jwtToken)
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .content("{\"brand\":\"Honda\",\"model\":\"Civic\",\"year\":2021}\n"
+            + "not json\n"
+            + "\n"
+            + "{\"brand\":\"Ford\",\"model\":\"Focus\",\"year\":2019}\n"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.received").value(3))
+        .andExpect(jsonPath("$.createdIds.length()").value(2))
+        .andExpect(jsonPath("$.errors.length()").value(1))
+        .andExpect(jsonPath("$.errors[0].index").value(1));
+    }
+
+    @Test
+    @org.springframework.transaction.annotation.Transactional
+    void exportCarsAsNdjson() throws Exception {
+    Owner owner = ownerRepository.findAll().get(0);
+    carRepository.save(new Car(null, "Honda", "Civic", 2021, owner));
+    // the export runs on an async thread in its own transaction
+    commitFixture();
+    MvcResult result = mockMvc.perform(get("/api/cars/export")
+        .header("Authorization", "Bearer " + jwtToken))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    String body = mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+        .andReturn().getResponse().getContentAsString();
+    String[] lines = body.split("\n");
+    org.junit.jupiter.api.Assertions.assertEquals(2, lines.length);
+    org.junit.jupiter.api.Assertions.assertEquals("Toyota", JsonPath.read(lines[0], "$.brand"));
+    org.junit.jupiter.api.Assertions.assertEquals("Honda", JsonPath.read(lines[1], "$.brand"));
+    }
+
+    @Test
+    @org.springframework.transaction.annotation.Transactional
+    void suggestFollowsCommittedWrites() throws Exception {
+    String created = mockMvc.perform(post("/api/cars")
+        .header("Authorization", "Bearer " + jwtToken)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"brand\":\"Škoda\",\"model\":\"Octavia\",\"year\":2022}"))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+    Integer carId = JsonPath.read(created, "$.carId");
+    // the index is updated after commit
+    commitFixture();
+    mockMvc.perform(get("/api/suggest?q=sko&type=brand")
+        .header("Authorization", "Bearer " + jwtToken))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].type").value("brand"))
+        .andExpect(jsonPath("$[0].text").value("Škoda"))
+        .andExpect(jsonPath("$[0].id").doesNotExist());
+    mockMvc.perform(delete("/api/cars/" + carId)
+        .header("Authorization", "Bearer " + jwtToken))
+        .andExpect(status().isOk());
+    mockMvc.perform(get("/api/suggest?q=sko&type=brand")
+        .header("Authorization", "Bearer " + jwtToken))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(0));
+    mockMvc.perform(get("/api/suggest?q=sko&limit=500")
+        .header("Authorization", "Bearer " + jwtToken))
+        .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @org.springframework.transaction.annotation.Transactional
+    void streamPushesCommittedChanges() throws Exception {
+    MvcResult stream = mockMvc.perform(get("/api/cars/stream")
+        .header("Authorization", "Bearer " + jwtToken))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    mockMvc.perform(post("/api/cars")
+        .header("Authorization", "Bearer " + jwtToken)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"brand\":\"Tesla\",\"model\":\"Model 3\",\"year\":2023}"))
+        .andExpect(status().isOk());
+    // subscribers only hear about committed changes
+    commitFixture();
+    try {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!stream.getResponse().getContentAsString().contains("Tesla") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(stream.getResponse().getContentAsString())
+            .contains("event:created")
+            .contains("\"brand\":\"Tesla\"");
+    } finally {
+        stream.getRequest().getAsyncContext().complete();
+    }
+    }
+
+    // For code that only sees committed data (async threads, after-commit listeners): commits the
+    // test transaction, and with it the fixture, which cleanUpCommittedFixture deletes afterwards
+    private void commitFixture() {
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        fixtureCommitted = true;
+    }
 }
@@ -0,0 +1,71 @@
+package com.example.demo.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.demo.service.event.CarChangedEvent;
+import com.example.demo.web.dto.CarResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ChangeStreamBroadcasterTest {
+    final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    final ChangeStreamBroadcaster broadcaster = new ChangeStreamBroadcaster(new ObjectMapper(), meterRegistry,
+        4, 60_000, 1, 10, 50);
+
+    @AfterEach
+    void shutdown() {
+        broadcaster.destroy();
+    }
+
+    @Test
+    void subscriberWhoseSendBlocksIsDisconnected() throws Exception {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger sends = new AtomicInteger();
+        broadcaster.subscribe(ChangeStreamBroadcaster.CARS, new SseEmitter() {
+            @Override
+            public void send(Set<DataWithMediaType> items) throws IOException {
+                sends.incrementAndGet();
+                sending.countDown();
+                try {
+                    // a client that stopped reading
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        broadcaster.onCarChanged(new CarChangedEvent(null, new CarResponse(1L, "Tesla", "Model 3", 2023, null, 0)));
+        broadcaster.onCarChanged(new CarChangedEvent(null, new CarResponse(2L, "Tesla", "Model Y", 2024, null, 0)));
+        assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(100);
+        broadcaster.disconnectStalled();
+
+        assertThat(meterRegistry.get("sse.dropped").tag("reason", "stalled").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("sse.subscribers").tag("stream", "cars").gauge().value()).isZero();
+
+        // once the blocked send returns, the drain task ends without sending the queued event
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("executor.completed").tag("name", "sse.send").functionCounter().count() < 1
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(meterRegistry.get("executor.completed").tag("name", "sse.send").functionCounter().count())
+            .isEqualTo(1);
+        assertThat(sends).hasValue(1);
+    }
+}
@@ -11,6 +11,8 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -47,6 +49,16 @@ class OwnerControllerTest {
         .andExpect(jsonPath("$.page.size").value(5));
     }
 
+    @Test
+    @org.springframework.transaction.annotation.Transactional
+    void getOwnersWithoutTotal() throws Exception {
+    mockMvc.perform(get("/api/owners?page=0&size=5&total=none")
+        .header("Authorization", "Bearer " + jwtToken))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.page.hasNext").value(false))
+        .andExpect(jsonPath("$.page.totalElements").doesNotExist());
+    }
+
     @Test
     @org.springframework.transaction.annotation.Transactional
     void getOwnerById() throws Exception {
@@ -58,6 +70,59 @@ class OwnerControllerTest {
         .andExpect(jsonPath("$.owner.lastName").value("Smith"));
     }
 
+    @Test
+    @org.springframework.transaction.annotation.Transactional
+    void getOwnerByIdAfterCarAdded() throws Exception {
+    Owner owner = ownerRepository.findAll().get(0);
+    mockMvc.perform(get("/api/owners/" + owner.getOwnerId())
+        .header("Authorization", "Bearer " + jwtToken))
+        .andExpect(jsonPath("$.owner.cars.length()").value(0));
+    mockMvc.perform(post("/api/cars")
+        .header("Authorization", "Bearer " + jwtToken)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"brand\":\"Honda\",\"model\":\"Civic\",\"year\":2021,"
+            + "\"owner\":{\"ownerId\":" + owner.getOwnerId() + "}}"))
+        .andExpect(status().isOk());
+    // the cached owner entry must have been evicted by the car write
+    mockMvc.perform(get("/api/owners/" + owner.getOwnerId())
+        .header("Authorization", "Bearer " + jwtToken))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.owner.cars[0].brand").value("Honda"));
+    }
+
+    @Test
+    @org.springframework.transaction.annotation.Transactional
+    void ownerETagChangesWithItsCars() throws Exception {
+    Owner owner = ownerRepository.findAll().get(0);
+    String path = "/api/owners/" + owner.getOwnerId();
+    String etag = mockMvc.perform(get(path)
+        .header("Authorization", "Bearer " + jwtToken))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getHeader("ETag");
+    mockMvc.perform(get(path)
+        .header("Authorization", "Bearer " + jwtToken)
+        .header("If-None-Match", etag))
+        .andExpect(status().isNotModified());
+    mockMvc.perform(post("/api/cars")
+        .header("Authorization", "Bearer " + jwtToken)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"brand\":\"Honda\",\"model\":\"Civic\",\"year\":2021,"
+            + "\"owner\":{\"ownerId\":" + owner.getOwnerId() + "}}"))
+        .andExpect(status().isOk());
+    mockMvc.perform(get(path)
+        .header("Authorization", "Bearer " + jwtToken)
+        .header("If-None-Match", etag))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", org.hamcrest.Matchers.not(etag)))
+        .andExpect(jsonPath("$.owner.cars[0].brand").value("Honda"));
+    mockMvc.perform(put(path)
+        .header("Authorization", "Bearer " + jwtToken)
+        .header("If-Match", etag)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"firstName\":\"Janet\",\"lastName\":\"Smith\"}"))
+        .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     @org.springframework.transaction.annotation.Transactional
     void createOwner() throws Exception {
@@ -70,4 +135,17 @@ class OwnerControllerTest {
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.firstName").value("Sam"));
     }
+
+    @Test
+    @org.springframework.transaction.annotation.Transactional
+    void createOwnersInBatch() throws Exception {
+    mockMvc.perform(post("/api/owners/batch")
+        .header("Authorization", "Bearer " + jwtToken)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("[{\"firstName\":\"Ann\",\"lastName\":\"Lee\"},{\"firstName\":\"Bob\"}]"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.createdIds.length()").value(1))
+        .andExpect(jsonPath("$.errors[0].index").value(1))
+        .andExpect(jsonPath("$.errors[0].message").value("lastName must not be blank"));
+    }
 }
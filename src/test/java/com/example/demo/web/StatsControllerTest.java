@@ -0,0 +1,101 @@
+package com.example.demo.web;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.demo.domain.Car;
+import com.example.demo.domain.Owner;
+import com.example.demo.repository.CarRepository;
+import com.example.demo.repository.OwnerRepository;
+import com.example.demo.service.ReadCaches;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StatsControllerTest {
+    @Autowired MockMvc mockMvc;
+    @Autowired CarRepository carRepository;
+    @Autowired OwnerRepository ownerRepository;
+    @Autowired CacheManager cacheManager;
+
+    @Autowired com.example.demo.repository.UserRepository userRepository;
+    @Autowired com.example.demo.security.JwtTokenUtil jwtTokenUtil;
+
+    String jwtToken;
+
+    @BeforeEach
+    @org.springframework.transaction.annotation.Transactional
+    void setup() {
+        cacheManager.getCache(ReadCaches.STATS).clear();
+        carRepository.deleteAll();
+        ownerRepository.deleteAll();
+        userRepository.deleteByUsername("statsuser");
+        userRepository.save(new com.example.demo.domain.User(null, "statsuser", "{noop}statspass", "ROLE_USER"));
+        jwtToken = jwtTokenUtil.generateToken("statsuser");
+        Owner john = ownerRepository.save(new Owner(null, "John", "Doe", List.of()));
+        Owner jane = ownerRepository.save(new Owner(null, "Jane", "Smith", List.of()));
+        ownerRepository.save(new Owner(null, "Jim", "Beam", List.of()));
+        carRepository.save(new Car(null, "Toyota", "Corolla", 2020, john));
+        carRepository.save(new Car(null, "Toyota", "Yaris", 2021, john));
+        carRepository.save(new Car(null, "Honda", "Civic", 2020, jane));
+    }
+
+    @Test
+    @org.springframework.transaction.annotation.Transactional
+    void carsByBrand() throws Exception {
+    mockMvc.perform(get("/api/stats/cars-by-brand")
+        .header("Authorization", "Bearer " + jwtToken))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].brand").value("Toyota"))
+        .andExpect(jsonPath("$[0].cars").value(2))
+        .andExpect(jsonPath("$[1].brand").value("Honda"));
+    mockMvc.perform(get("/api/stats/cars-by-brand?limit=1")
+        .header("Authorization", "Bearer " + jwtToken))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1));
+    mockMvc.perform(get("/api/stats/cars-by-brand?limit=0")
+        .header("Authorization", "Bearer " + jwtToken))
+        .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @org.springframework.transaction.annotation.Transactional
+    void carsByYearIsCached() throws Exception {
+    mockMvc.perform(get("/api/stats/cars-by-year")
+        .header("Authorization", "Bearer " + jwtToken))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].year").value(2020))
+        .andExpect(jsonPath("$[0].cars").value(2))
+        .andExpect(jsonPath("$[1].year").value(2021))
+        .andExpect(jsonPath("$[1].cars").value(1));
+    carRepository.save(new Car(null, "Ford", "Focus", 2021, null));
+    // served from the stats cache until the TTL runs out
+    mockMvc.perform(get("/api/stats/cars-by-year")
+        .header("Authorization", "Bearer " + jwtToken))
+        .andExpect(jsonPath("$[1].cars").value(1));
+    }
+
+    @Test
+    @org.springframework.transaction.annotation.Transactional
+    void carsPerOwner() throws Exception {
+    mockMvc.perform(get("/api/stats/cars-per-owner")
+        .header("Authorization", "Bearer " + jwtToken))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(3))
+        .andExpect(jsonPath("$[0].cars").value(0))
+        .andExpect(jsonPath("$[0].owners").value(1))
+        .andExpect(jsonPath("$[1].cars").value(1))
+        .andExpect(jsonPath("$[2].cars").value(2))
+        .andExpect(jsonPath("$[2].owners").value(1));
+    }
+}